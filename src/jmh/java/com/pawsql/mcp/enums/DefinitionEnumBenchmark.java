@@ -0,0 +1,61 @@
+package com.pawsql.mcp.enums;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of database definitions, done on every optimize_sql call; "first" and "last" hit the first and the
+ * last constant, "miss" scans all of them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefinitionEnumBenchmark {
+
+	@Param({"first", "last", "miss"})
+	public String position;
+
+	private String dbType;
+	private String name;
+	private String defId;
+
+	@Setup
+	public void setUp() {
+		DefinitionEnum[] values = DefinitionEnum.values();
+		DefinitionEnum definition = position.equals("first") ? values[0] : values[values.length - 1];
+		boolean miss = position.equals("miss");
+		dbType = miss ? "sqlserver" : definition.getDbType();
+		name = miss ? "SQL Server" : definition.getName().toUpperCase();
+		defId = miss ? "00000000-0000-0000-0000-000000000000" : definition.getDefId();
+	}
+
+	@Benchmark
+	public DefinitionEnum matchByDbType() {
+		return DefinitionEnum.matchByDbType(dbType);
+	}
+
+	@Benchmark
+	public DefinitionEnum matchByName() {
+		return DefinitionEnum.matchByName(name);
+	}
+
+	@Benchmark
+	public DefinitionEnum match() {
+		return DefinitionEnum.match(defId);
+	}
+
+}
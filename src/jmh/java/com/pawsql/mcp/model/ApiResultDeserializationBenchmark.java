@@ -0,0 +1,111 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading large PawSQL responses into an {@link ApiResult}, untyped with plain databinding and typed with
+ * {@link ApiResultReader} as the API client does; run with {@code -prof gc} to see the allocation per response
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ApiResultDeserializationBenchmark {
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * getStatementDetails response with a detailMarkdown of the given number of characters
+	 */
+	@State(Scope.Benchmark)
+	public static class StatementDetailsPayload {
+		@Param({"16384", "1048576", "8388608"})
+		public int detailMarkdownSize;
+
+		byte[] body;
+
+		@Setup
+		public void setUp() throws IOException {
+			StringBuilder markdown = new StringBuilder(detailMarkdownSize + 128);
+			while (markdown.length() < detailMarkdownSize) {
+				markdown.append("-> Index Scan using idx_orders_custkey on orders  (cost=0.43..8.45 rows=1 width=107) | \"quoted\"\n");
+			}
+			markdown.setLength(detailMarkdownSize);
+			body = response(Map.of("analysisStmtId", "stmt-1", "detailMarkdown", markdown.toString()));
+		}
+	}
+
+	/**
+	 * getAnalysisSummary response listing the given number of statements
+	 */
+	@State(Scope.Benchmark)
+	public static class AnalysisSummaryPayload {
+		@Param({"100", "10000"})
+		public int statementCount;
+
+		byte[] body;
+
+		@Setup
+		public void setUp() throws IOException {
+			List<Map<String, Object>> statements = new ArrayList<>(statementCount);
+			for (int i = 1; i <= statementCount; i++) {
+				Map<String, Object> statement = new LinkedHashMap<>();
+				statement.put("analysisStmtId", "an-1-stmt-" + i);
+				statement.put("stmtText", "select * from orders o join customer c on o.o_custkey = c.c_custkey where o.o_orderkey = " + i);
+				statement.put("costBefore", 1000.0 * i);
+				statement.put("costAfter", 10.0 * i);
+				statement.put("performanceImprovement", "99%");
+				statements.add(statement);
+			}
+			body = response(Map.of("analysisId", "an-1", "status", "completed", "summaryStatementInfo", statements));
+		}
+	}
+
+	@Benchmark
+	public ApiResult statementDetailsUntyped(StatementDetailsPayload payload) throws IOException {
+		return OBJECT_MAPPER.readValue(payload.body, ApiResult.class);
+	}
+
+	@Benchmark
+	public ApiResult statementDetailsStreaming(StatementDetailsPayload payload) throws IOException {
+		return ApiResultReader.read(OBJECT_MAPPER, payload.body, StatementDetails::read);
+	}
+
+	@Benchmark
+	public ApiResult statementDetailsCapped(StatementDetailsPayload payload) throws IOException {
+		return ApiResultReader.read(OBJECT_MAPPER, payload.body, StatementDetails.reader(64 * 1024));
+	}
+
+	@Benchmark
+	public ApiResult analysisSummaryUntyped(AnalysisSummaryPayload payload) throws IOException {
+		return OBJECT_MAPPER.readValue(payload.body, ApiResult.class);
+	}
+
+	@Benchmark
+	public ApiResult analysisSummaryStreaming(AnalysisSummaryPayload payload) throws IOException {
+		return ApiResultReader.read(OBJECT_MAPPER, payload.body, AnalysisSummary::read);
+	}
+
+	private static byte[] response(Object data) throws IOException {
+		return OBJECT_MAPPER.writeValueAsBytes(new ApiResult(200, "success", data));
+	}
+
+}
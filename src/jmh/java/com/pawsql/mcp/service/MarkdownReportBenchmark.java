@@ -0,0 +1,70 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.model.StatementDetails;
+import com.pawsql.mcp.model.Workspace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Markdown generation of get_workspace_info / list_workspaces and optimize_sql
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkdownReportBenchmark {
+
+	@Param({"10", "1000"})
+	public int workspaceCount;
+
+	@Param({"16384", "1048576"})
+	public int detailMarkdownSize;
+
+	private MarkdownFormatter formatter;
+	private List<Workspace> workspaces;
+	private StatementDetails statementDetails;
+
+	@Setup
+	public void setUp() {
+		formatter = new MarkdownFormatter("http://localhost:13000");
+
+		workspaces = new ArrayList<>(workspaceCount);
+		for (int i = 1; i <= workspaceCount; i++) {
+			workspaces.add(new Workspace("ws-" + i, "workspace " + i, "mysql", i % 2 == 0 ? "10.0.0." + (i % 255) : null, "ready"));
+		}
+
+		StringBuilder markdown = new StringBuilder(detailMarkdownSize + 128);
+		while (markdown.length() < detailMarkdownSize) {
+			markdown.append("-> Index Scan using idx_orders_custkey on orders  (cost=0.43..8.45 rows=1 width=107)\n");
+		}
+		markdown.setLength(detailMarkdownSize);
+		statementDetails = new StatementDetails("stmt-1", markdown.toString(), detailMarkdownSize);
+	}
+
+	@Benchmark
+	public String workspaceTable() {
+		return MarkdownFormatter.workspaceTable(workspaces);
+	}
+
+	@Benchmark
+	public Map<String, String> report() {
+		return formatter.report("stmt-1", statementDetails, "ws-1");
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.pawsql.mcp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body construction and serialization, done for every PawSQL API call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+	private static final String API_KEY = "stub-api-key";
+
+	@Param({"200", "20000"})
+	public int workloadLength;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private String workload;
+
+	@Setup
+	public void setUp() {
+		StringBuilder sql = new StringBuilder(workloadLength + 64);
+		while (sql.length() < workloadLength) {
+			sql.append("select * from orders where o_custkey = 42 and o_comment like '%urgent%';\n");
+		}
+		sql.setLength(workloadLength);
+		workload = sql.toString();
+	}
+
+	@Benchmark
+	public Map<String, String> authenticatedRequest() {
+		return PawsqlRequests.authenticated(API_KEY);
+	}
+
+	@Benchmark
+	public byte[] serializeAnalysisRequest() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(PawsqlRequests.createAnalysis(API_KEY, workload, "ws-1", "mysql", true));
+	}
+
+}
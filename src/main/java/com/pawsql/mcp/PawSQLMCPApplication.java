@@ -1,15 +1,26 @@
 package com.pawsql.mcp;
 
 import com.pawsql.mcp.service.SqlOptimizeService;
+import com.pawsql.mcp.tool.ObservedToolCallback;
+import com.pawsql.mcp.tool.TimedToolCallback;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbacks;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.Arrays;
 import java.util.List;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class PawSQLMCPApplication {
 
     public static void main(String[] args) {
@@ -17,9 +28,16 @@ public class PawSQLMCPApplication {
     }
 
     @Bean
-    public List<ToolCallback> pawsqlTools(SqlOptimizeService sqlOptimizeService) {
-        return List.of(ToolCallbacks.from(sqlOptimizeService));
+    public List<ToolCallback> pawsqlTools(SqlOptimizeService sqlOptimizeService,
+                                          ObjectProvider<MeterRegistry> meterRegistry,
+                                          ObjectProvider<ObservationRegistry> observationRegistry) {
+        ToolCallback[] tools = ToolCallbacks.from(sqlOptimizeService);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        ObservationRegistry observations = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        return Arrays.stream(tools)
+                .map(tool -> (ToolCallback) new ObservedToolCallback(tool, observations))
+                .map(tool -> (ToolCallback) new TimedToolCallback(tool, registry))
+                .toList();
     }
 
-
 }
@@ -0,0 +1,723 @@
+package com.pawsql.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP client settings for calls to the PawSQL API server
+ */
+@ConfigurationProperties(prefix = "pawsql.client")
+public class PawsqlClientProperties {
+
+    /**
+     * Connection pool settings
+     */
+    private final Pool pool = new Pool();
+
+    /**
+     * Default timeouts, used for every endpoint without its own entry in {@link #endpoints}
+     */
+    private final Timeouts defaults = new Timeouts(Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+    /**
+     * Per-endpoint timeout overrides, keyed by endpoint name without the leading slash (e.g. createAnalysis)
+     */
+    private final Map<String, Timeouts> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Retry settings
+     */
+    private final Retry retry = new Retry();
+
+    /**
+     * Circuit breaker settings, applied to each endpoint separately
+     */
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Rate limit shared by all calls made with the API key
+     */
+    private final RateLimit rateLimit = new RateLimit();
+
+    /**
+     * Per-endpoint concurrency limits
+     */
+    private final Bulkhead bulkhead = new Bulkhead();
+
+    /**
+     * Latency-based adjustment of the concurrency limits of selected endpoints
+     */
+    private final AdaptiveLimit adaptiveLimit = new AdaptiveLimit();
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Timeouts getDefaults() {
+        return defaults;
+    }
+
+    public Map<String, Timeouts> getEndpoints() {
+        return endpoints;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public AdaptiveLimit getAdaptiveLimit() {
+        return adaptiveLimit;
+    }
+
+    /**
+     * Resolve the effective timeouts of an endpoint, falling back to {@link #defaults} for unset values
+     *
+     * @param endpoint Endpoint path, e.g. /createAnalysis
+     * @return Effective timeouts
+     */
+    public EndpointTimeouts timeoutsFor(String endpoint) {
+        Timeouts override = findEndpoint(endpoint);
+        if (override == null) {
+            return new EndpointTimeouts(defaults.getConnectTimeout(), defaults.getReadTimeout(), defaults.getDeadline());
+        }
+        return new EndpointTimeouts(
+                override.getConnectTimeout() != null ? override.getConnectTimeout() : defaults.getConnectTimeout(),
+                override.getReadTimeout() != null ? override.getReadTimeout() : defaults.getReadTimeout(),
+                override.getDeadline() != null ? override.getDeadline() : defaults.getDeadline());
+    }
+
+    /**
+     * Resolve the retry policy of an endpoint
+     *
+     * @param endpoint Endpoint path, e.g. /createAnalysis
+     * @return Effective retry policy
+     */
+    public EndpointRetry retryFor(String endpoint) {
+        Integer maxAttempts = findEndpoint(retry.getMaxAttemptsByEndpoint(), endpoint);
+        String name = normalizeEndpoint(endpoint);
+        boolean idempotent = retry.getNonIdempotentEndpoints().stream()
+                .noneMatch(nonIdempotent -> normalizeEndpoint(nonIdempotent).equals(name));
+        return new EndpointRetry(maxAttempts != null ? maxAttempts : retry.getMaxAttempts(), idempotent);
+    }
+
+    /**
+     * @param endpoint Endpoint path, e.g. /createAnalysis
+     * @return Maximum number of calls of the endpoint in flight
+     */
+    public int maxConcurrentCallsFor(String endpoint) {
+        Integer maxConcurrentCalls = findEndpoint(bulkhead.getMaxConcurrentCallsByEndpoint(), endpoint);
+        return maxConcurrentCalls != null ? maxConcurrentCalls : bulkhead.getMaxConcurrentCalls();
+    }
+
+    /**
+     * @param endpoint Endpoint path, e.g. /createAnalysis
+     * @return Whether the endpoint's concurrency limit adapts to its latency
+     */
+    public boolean isAdaptiveLimitOf(String endpoint) {
+        String name = normalizeEndpoint(endpoint);
+        return adaptiveLimit.isEnabled() && adaptiveLimit.getEndpoints().stream()
+                .anyMatch(adaptive -> normalizeEndpoint(adaptive).equals(name));
+    }
+
+    private Timeouts findEndpoint(String endpoint) {
+        return findEndpoint(endpoints, endpoint);
+    }
+
+    private static <V> V findEndpoint(Map<String, V> overrides, String endpoint) {
+        String name = normalizeEndpoint(endpoint);
+        for (Map.Entry<String, V> entry : overrides.entrySet()) {
+            if (normalizeEndpoint(entry.getKey()).equals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String normalizeEndpoint(String endpoint) {
+        return endpoint.replace("/", "").replace("-", "").toLowerCase();
+    }
+
+    /**
+     * Effective timeouts of one endpoint
+     *
+     * @param connectTimeout Maximum time to establish a TCP/TLS connection
+     * @param readTimeout    Maximum time to wait for response data
+     * @param deadline       Total budget of a single call, including waiting for a pooled connection
+     */
+    public record EndpointTimeouts(Duration connectTimeout, Duration readTimeout, Duration deadline) {
+    }
+
+    /**
+     * Effective retry policy of one endpoint
+     *
+     * @param maxAttempts Maximum number of attempts, including the first one
+     * @param idempotent  Whether repeating the call has no further effect; other calls are only retried with an idempotency key
+     */
+    public record EndpointRetry(int maxAttempts, boolean idempotent) {
+    }
+
+    public static class Timeouts {
+        /**
+         * Maximum time to establish a TCP/TLS connection
+         */
+        private Duration connectTimeout;
+
+        /**
+         * Maximum time to wait for response data
+         */
+        private Duration readTimeout;
+
+        /**
+         * Total budget of a single call, including waiting for a pooled connection
+         */
+        private Duration deadline;
+
+        public Timeouts() {
+        }
+
+        public Timeouts(Duration connectTimeout, Duration readTimeout, Duration deadline) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.deadline = deadline;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    public static class Pool {
+        /**
+         * Maximum number of pooled connections across all routes
+         */
+        private int maxTotal = 50;
+
+        /**
+         * Maximum number of pooled connections per route (PawSQL host)
+         */
+        private int maxPerRoute = 20;
+
+        /**
+         * Idle connections older than this are closed by the background evictor
+         */
+        private Duration evictIdleAfter = Duration.ofSeconds(30);
+
+        /**
+         * Total time to live of a pooled connection, regardless of activity
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Connections idle longer than this are re-validated before being leased
+         */
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public Duration getEvictIdleAfter() {
+            return evictIdleAfter;
+        }
+
+        public void setEvictIdleAfter(Duration evictIdleAfter) {
+            this.evictIdleAfter = evictIdleAfter;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
+    }
+
+    public static class Retry {
+        /**
+         * Maximum number of attempts of a call, including the first one; 1 disables retries
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Per-endpoint overrides of {@link #maxAttempts}, keyed by endpoint name without the leading slash
+         */
+        private final Map<String, Integer> maxAttemptsByEndpoint = new LinkedHashMap<>();
+
+        /**
+         * Delay before the first retry
+         */
+        private Duration initialBackoff = Duration.ofMillis(200);
+
+        /**
+         * Upper bound of the delay between two attempts
+         */
+        private Duration maxBackoff = Duration.ofSeconds(2);
+
+        /**
+         * Factor applied to the delay after each attempt
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Fraction of each delay that is randomized, between 0 and 1
+         */
+        private double jitter = 0.5;
+
+        /**
+         * HTTP statuses that are retried; connection and socket failures are always retried
+         */
+        private List<Integer> retryStatuses = new ArrayList<>(List.of(429, 502, 503, 504));
+
+        /**
+         * Endpoints that create something on the server and are only retried with an idempotency key
+         */
+        private List<String> nonIdempotentEndpoints = new ArrayList<>(List.of("createWorkspace", "createAnalysis"));
+
+        /**
+         * Request header carrying the idempotency key of non-idempotent calls, empty by default. Set it only if the
+         * PawSQL server deduplicates requests by that header; when empty, non-idempotent calls are never retried.
+         * Even with a key they are not retried after a read timeout, as the server may already have acted on them.
+         */
+        private String idempotencyKeyHeader = "";
+
+        /**
+         * Global retry budget shared by all endpoints
+         */
+        private final Budget budget = new Budget();
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Map<String, Integer> getMaxAttemptsByEndpoint() {
+            return maxAttemptsByEndpoint;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+
+        public List<Integer> getRetryStatuses() {
+            return retryStatuses;
+        }
+
+        public void setRetryStatuses(List<Integer> retryStatuses) {
+            this.retryStatuses = retryStatuses;
+        }
+
+        public List<String> getNonIdempotentEndpoints() {
+            return nonIdempotentEndpoints;
+        }
+
+        public void setNonIdempotentEndpoints(List<String> nonIdempotentEndpoints) {
+            this.nonIdempotentEndpoints = nonIdempotentEndpoints;
+        }
+
+        public String getIdempotencyKeyHeader() {
+            return idempotencyKeyHeader;
+        }
+
+        public void setIdempotencyKeyHeader(String idempotencyKeyHeader) {
+            this.idempotencyKeyHeader = idempotencyKeyHeader;
+        }
+
+        public Budget getBudget() {
+            return budget;
+        }
+    }
+
+    public static class Budget {
+        /**
+         * Retries allowed per request made, e.g. 0.1 allows one retry for every ten requests
+         */
+        private double ratio = 0.1;
+
+        /**
+         * Retries allowed per second regardless of traffic
+         */
+        private double minRetriesPerSecond = 1.0;
+
+        /**
+         * Maximum number of retries that can be saved up
+         */
+        private double maxBalance = 20;
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public double getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(double minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+
+        public double getMaxBalance() {
+            return maxBalance;
+        }
+
+        public void setMaxBalance(double maxBalance) {
+            this.maxBalance = maxBalance;
+        }
+    }
+
+    public static class CircuitBreaker {
+        /**
+         * Whether calls to failing endpoints are short-circuited
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of most recent calls the failure rate is computed over
+         */
+        private int windowSize = 20;
+
+        /**
+         * Minimum number of calls in the window before the circuit can open
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * Failure rate, between 0 and 1, at which the circuit opens
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * Time an open circuit rejects calls before letting probe calls through
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Number of probe calls that must succeed to close a half-open circuit
+         */
+        private int halfOpenProbes = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenProbes() {
+            return halfOpenProbes;
+        }
+
+        public void setHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+        }
+    }
+
+    public static class RateLimit {
+        /**
+         * Whether calls are rate limited
+         */
+        private boolean enabled = true;
+
+        /**
+         * Sustained number of calls per second
+         */
+        private double permitsPerSecond = 20;
+
+        /**
+         * Number of calls that can be made at once after an idle period
+         */
+        private int burst = 40;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public void setPermitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    public static class Bulkhead {
+        /**
+         * Whether the number of calls in flight is limited per endpoint
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of calls of one endpoint in flight
+         */
+        private int maxConcurrentCalls = 10;
+
+        /**
+         * Per-endpoint overrides of {@link #maxConcurrentCalls}, keyed by endpoint name without the leading slash
+         */
+        private final Map<String, Integer> maxConcurrentCallsByEndpoint = new LinkedHashMap<>();
+
+        /**
+         * Maximum number of calls of one endpoint waiting for a free slot; further calls are rejected at once
+         */
+        private int maxQueue = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Map<String, Integer> getMaxConcurrentCallsByEndpoint() {
+            return maxConcurrentCallsByEndpoint;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+    }
+
+    public static class AdaptiveLimit {
+        /**
+         * Whether concurrency limits adapt to latency; requires the bulkhead to be enabled
+         */
+        private boolean enabled = true;
+
+        /**
+         * Endpoints whose limit adapts; the bulkhead limit of the endpoint is the starting point
+         */
+        private List<String> endpoints = new ArrayList<>(List.of("createAnalysis"));
+
+        /**
+         * Lowest limit
+         */
+        private int minLimit = 1;
+
+        /**
+         * Highest limit
+         */
+        private int maxLimit = 20;
+
+        /**
+         * Factor applied to the limit on failures or rising latency
+         */
+        private double backoffRatio = 0.8;
+
+        /**
+         * Latency, relative to the smoothed baseline, above which a call counts as a sign of congestion
+         */
+        private double latencyTolerance = 2.0;
+
+        /**
+         * Weight of each new latency sample in the baseline
+         */
+        private double smoothing = 0.1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getEndpoints() {
+            return endpoints;
+        }
+
+        public void setEndpoints(List<String> endpoints) {
+            this.endpoints = endpoints;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        public void setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+    }
+}
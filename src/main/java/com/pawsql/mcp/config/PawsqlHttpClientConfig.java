@@ -0,0 +1,70 @@
+package com.pawsql.mcp.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled, keep-alive HTTP client used by {@link com.pawsql.mcp.service.PawsqlApiService}
+ * <p>
+ * The pool is observable through the {@code pawsql.client.pool.*} gauges.
+ */
+@Configuration
+public class PawsqlHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager pawsqlConnectionManager(PawsqlClientProperties properties,
+                                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        PawsqlClientProperties.Pool pool = properties.getPool();
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxTotal())
+                .setMaxConnPerRoute(pool.getMaxPerRoute())
+                .setDefaultConnectionConfig(createConnectionConfig(pool))
+                .build();
+        registerPoolMeters(connectionManager, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        return connectionManager;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public CloseableHttpAsyncClient pawsqlHttpClient(PoolingAsyncClientConnectionManager pawsqlConnectionManager,
+                                                     PawsqlClientProperties properties) {
+        return HttpAsyncClients.custom()
+                .setConnectionManager(pawsqlConnectionManager)
+                // PawsqlApiService retries within its retry budget; the client's own retries would bypass it
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(properties.getPool().getEvictIdleAfter().toMillis()))
+                .build();
+    }
+
+    private static void registerPoolMeters(PoolingAsyncClientConnectionManager connectionManager, MeterRegistry registry) {
+        Gauge.builder("pawsql.client.pool.leased", connectionManager, manager -> manager.getTotalStats().getLeased())
+                .description("PawSQL connections currently in use")
+                .register(registry);
+        Gauge.builder("pawsql.client.pool.pending", connectionManager, manager -> manager.getTotalStats().getPending())
+                .description("PawSQL requests waiting for a connection")
+                .register(registry);
+        Gauge.builder("pawsql.client.pool.available", connectionManager, manager -> manager.getTotalStats().getAvailable())
+                .description("Idle PawSQL connections ready to be reused")
+                .register(registry);
+        Gauge.builder("pawsql.client.pool.max", connectionManager, manager -> manager.getTotalStats().getMax())
+                .description("Maximum number of PawSQL connections")
+                .register(registry);
+    }
+
+    private static ConnectionConfig createConnectionConfig(PawsqlClientProperties.Pool pool) {
+        return ConnectionConfig.custom()
+                .setTimeToLive(TimeValue.ofMilliseconds(pool.getTimeToLive().toMillis()))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(pool.getValidateAfterInactivity().toMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.pawsql.mcp.config;
+
+import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
+import io.micrometer.core.instrument.logging.LoggingRegistryConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Meter registry of STDIO mode
+ * <p>
+ * Standard output carries the MCP protocol, so meters are periodically written to the {@code com.pawsql.mcp.metrics}
+ * logger instead. That logger has no console output either, so the dump is only visible when {@code PAWSQL_LOG_FILE}
+ * names a log file; without it meters are still recorded but never written anywhere. A startup warning would be lost
+ * the same way, so there is none. In SSE mode this registry is switched off and the Prometheus registry of Spring
+ * Boot Actuator is used.
+ */
+@Configuration(proxyBeanMethods = false)
+public class PawsqlMetricsConfig {
+    private static final Logger metricsLog = LoggerFactory.getLogger("com.pawsql.mcp.metrics");
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "pawsql.metrics.log", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LoggingMeterRegistry loggingMeterRegistry(PawsqlMetricsProperties metricsProperties) {
+        Duration interval = metricsProperties.getLog().getInterval();
+        LoggingRegistryConfig config = new LoggingRegistryConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public Duration step() {
+                return interval;
+            }
+        };
+        return LoggingMeterRegistry.builder(config)
+                .loggingSink(metricsLog::info)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.pawsql.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Metrics export settings
+ */
+@ConfigurationProperties(prefix = "pawsql.metrics")
+public class PawsqlMetricsProperties {
+
+    /**
+     * Periodic dump of all meters to the log, for STDIO mode where there is no endpoint to scrape
+     */
+    private final Log log = new Log();
+
+    public Log getLog() {
+        return log;
+    }
+
+    public static class Log {
+        /**
+         * Whether meters are written to the log
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval between two dumps
+         */
+        private Duration interval = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+}
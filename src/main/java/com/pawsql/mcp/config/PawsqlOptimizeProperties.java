@@ -0,0 +1,473 @@
+package com.pawsql.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the SQL optimization tools exposed over MCP
+ */
+@ConfigurationProperties(prefix = "pawsql.optimize")
+public class PawsqlOptimizeProperties {
+
+    /**
+     * End-to-end budget of a single optimize_sql call, shared by all PawSQL API calls it makes
+     */
+    private Duration deadline = Duration.ofMinutes(3);
+
+    /**
+     * Run MCP tool calls on virtual threads (requires JDK 21 at runtime)
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Maximum number of MCP tool calls running at once with virtual threads, 0 for Reactor's default of ten per CPU
+     */
+    private int maxConcurrentToolCalls = 0;
+
+    /**
+     * Let concurrent identical optimize_sql calls share one upstream analysis
+     */
+    private boolean singleFlight = true;
+
+    /**
+     * Cache of generated optimization reports
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Workspace directory settings
+     */
+    private final Workspaces workspaces = new Workspaces();
+
+    /**
+     * Reuse of offline workspaces created from identical DDL
+     */
+    private final WorkspaceReuse workspaceReuse = new WorkspaceReuse();
+
+    /**
+     * optimize_sql_batch settings
+     */
+    private final Batch batch = new Batch();
+
+    /**
+     * Polling of analyses that are still running
+     */
+    private final Polling polling = new Polling();
+
+    /**
+     * Table of analyses submitted with submit_analysis
+     */
+    private final Jobs jobs = new Jobs();
+
+    /**
+     * Shape of the generated reports
+     */
+    private final Report report = new Report();
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Duration deadline) {
+        this.deadline = deadline;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getMaxConcurrentToolCalls() {
+        return maxConcurrentToolCalls;
+    }
+
+    public void setMaxConcurrentToolCalls(int maxConcurrentToolCalls) {
+        this.maxConcurrentToolCalls = maxConcurrentToolCalls;
+    }
+
+    public boolean isSingleFlight() {
+        return singleFlight;
+    }
+
+    public void setSingleFlight(boolean singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Workspaces getWorkspaces() {
+        return workspaces;
+    }
+
+    public WorkspaceReuse getWorkspaceReuse() {
+        return workspaceReuse;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Polling getPolling() {
+        return polling;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public Report getReport() {
+        return report;
+    }
+
+    public static class Cache {
+        /**
+         * Whether optimize_sql reports are cached
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached reports
+         */
+        private int maxSize = 1000;
+
+        /**
+         * Time a cached report stays valid
+         */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * Time an expired report is kept to be served, marked as stale, while PawSQL is unavailable; zero disables it
+         */
+        private Duration staleTtl = Duration.ofHours(24);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleTtl() {
+            return staleTtl;
+        }
+
+        public void setStaleTtl(Duration staleTtl) {
+            this.staleTtl = staleTtl;
+        }
+    }
+
+    public static class Workspaces {
+        /**
+         * Interval of the background workspace directory refresh
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+
+        /**
+         * Minimum age of the directory before a lookup miss triggers an immediate reload
+         */
+        private Duration missRefreshInterval = Duration.ofSeconds(30);
+
+        /**
+         * Page size used when loading all workspaces
+         */
+        private int pageSize = 100;
+
+        /**
+         * Maximum number of workspace pages fetched in parallel
+         */
+        private int parallelPages = 4;
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getMissRefreshInterval() {
+            return missRefreshInterval;
+        }
+
+        public void setMissRefreshInterval(Duration missRefreshInterval) {
+            this.missRefreshInterval = missRefreshInterval;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public int getParallelPages() {
+            return parallelPages;
+        }
+
+        public void setParallelPages(int parallelPages) {
+            this.parallelPages = parallelPages;
+        }
+    }
+
+    public static class WorkspaceReuse {
+        /**
+         * Whether a workspace created from some DDL is reused when the same DDL is passed again
+         */
+        private boolean enabled = true;
+
+        /**
+         * File holding the schema fingerprint to workspace ID map so that it survives restarts; when empty the map is
+         * kept in memory only
+         */
+        private String store;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getStore() {
+            return store;
+        }
+
+        public void setStore(String store) {
+            this.store = store;
+        }
+    }
+
+    public static class Batch {
+        /**
+         * Maximum number of statements accepted by one optimize_sql_batch call
+         */
+        private int maxStatements = 200;
+
+        /**
+         * Maximum number of getStatementDetails calls in flight for one batch
+         */
+        private int detailConcurrency = 8;
+
+        /**
+         * End-to-end budget of a single optimize_sql_batch call
+         */
+        private Duration deadline = Duration.ofMinutes(10);
+
+        public int getMaxStatements() {
+            return maxStatements;
+        }
+
+        public void setMaxStatements(int maxStatements) {
+            this.maxStatements = maxStatements;
+        }
+
+        public int getDetailConcurrency() {
+            return detailConcurrency;
+        }
+
+        public void setDetailConcurrency(int detailConcurrency) {
+            this.detailConcurrency = detailConcurrency;
+        }
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    public static class Polling {
+        /**
+         * Delay before the second summary poll
+         */
+        private Duration initialDelay = Duration.ofMillis(500);
+
+        /**
+         * Upper bound of the delay between two polls
+         */
+        private Duration maxDelay = Duration.ofSeconds(10);
+
+        /**
+         * Factor applied to the delay after each poll
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Fraction of each delay that is randomized, between 0 and 1
+         */
+        private double jitter = 0.5;
+
+        /**
+         * Maximum number of summary polls; if the analysis is still running after them, polling fails with
+         * {@link com.pawsql.mcp.service.DeadlineExceededException} and the result can be fetched later with get_analysis_result
+         */
+        private int maxAttempts = 200;
+
+        /**
+         * Summary field holding the analysis status
+         */
+        private String statusField = "status";
+
+        /**
+         * Status values, compared case-insensitively, of an analysis that is still running; any other status is
+         * final, and a summary without a status fails the poll
+         */
+        private List<String> pendingStatuses = new ArrayList<>(List.of("running"));
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public String getStatusField() {
+            return statusField;
+        }
+
+        public void setStatusField(String statusField) {
+            this.statusField = statusField;
+        }
+
+        public List<String> getPendingStatuses() {
+            return pendingStatuses;
+        }
+
+        public void setPendingStatuses(List<String> pendingStatuses) {
+            this.pendingStatuses = pendingStatuses;
+        }
+    }
+
+    public static class Jobs {
+        /**
+         * Maximum number of jobs kept; submit_analysis is rejected while the table is full of running or retained jobs
+         */
+        private int maxJobs = 1000;
+
+        /**
+         * Time a finished job stays available to get_analysis_result
+         */
+        private Duration retention = Duration.ofHours(1);
+
+        /**
+         * Time a submitted analysis may take until its report is built
+         */
+        private Duration resultDeadline = Duration.ofMinutes(30);
+
+        /**
+         * Interval of the purge of expired jobs
+         */
+        private Duration purgeInterval = Duration.ofMinutes(1);
+
+        public int getMaxJobs() {
+            return maxJobs;
+        }
+
+        public void setMaxJobs(int maxJobs) {
+            this.maxJobs = maxJobs;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public Duration getResultDeadline() {
+            return resultDeadline;
+        }
+
+        public void setResultDeadline(Duration resultDeadline) {
+            this.resultDeadline = resultDeadline;
+        }
+
+        public Duration getPurgeInterval() {
+            return purgeInterval;
+        }
+
+        public void setPurgeInterval(Duration purgeInterval) {
+            this.purgeInterval = purgeInterval;
+        }
+    }
+
+    public static class Report {
+        /**
+         * Maximum number of characters of a statement's detailMarkdown put into a report, 0 (the default) for no limit;
+         * longer details are truncated and point to the full report on PawSQL. This keeps reports small, but the
+         * getStatementDetails response is still received and decoded in full
+         */
+        private int maxDetailLength = 0;
+
+        public int getMaxDetailLength() {
+            return maxDetailLength;
+        }
+
+        public void setMaxDetailLength(int maxDetailLength) {
+            this.maxDetailLength = maxDetailLength;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pawsql.mcp.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Moves Reactor's bounded elastic scheduler onto virtual threads when {@code pawsql.optimize.virtual-threads} is set
+ * <p>
+ * The MCP server runs every synchronous tool call on that scheduler and keeps its thread for the whole call, so
+ * the scheduler's size is the ceiling of concurrent tool calls. On virtual threads a waiting tool call no longer
+ * holds a platform thread, and the ceiling can be raised with {@code pawsql.optimize.max-concurrent-tool-calls}.
+ * Reactor reads these settings once, when its schedulers are first used, so they are applied as system properties
+ * before the application context starts.
+ */
+public class VirtualThreadEnvironmentPostProcessor implements EnvironmentPostProcessor {
+    static final String VIRTUAL_THREADS_PROPERTY = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+    static final String SIZE_PROPERTY = "reactor.schedulers.defaultBoundedElasticSize";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        PawsqlOptimizeProperties properties = Binder.get(environment)
+                .bind("pawsql.optimize", PawsqlOptimizeProperties.class)
+                .orElseGet(PawsqlOptimizeProperties::new);
+        if (!properties.isVirtualThreads()) {
+            return;
+        }
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("pawsql.optimize.virtual-threads requires JDK 21 or later, running on " + Runtime.version());
+        }
+        setUnlessPresent(VIRTUAL_THREADS_PROPERTY, "true");
+        if (properties.getMaxConcurrentToolCalls() > 0) {
+            setUnlessPresent(SIZE_PROPERTY, String.valueOf(properties.getMaxConcurrentToolCalls()));
+        }
+    }
+
+    /**
+     * A value given on the command line with -D wins
+     */
+    private static void setUnlessPresent(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+}
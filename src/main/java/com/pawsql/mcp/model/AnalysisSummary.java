@@ -0,0 +1,114 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * getAnalysisSummary response, split into its top-level fields and the entries of summaryStatementInfo
+ * <p>
+ * A workload can have thousands of statements, so each entry is read straight into a {@link StatementSummary}
+ * with only its ID and improvement; statement texts and other per-statement fields are skipped without building a
+ * tree. Other top-level objects and arrays are skipped as well, since nothing reads them. Statements are read
+ * while parsing, not on first access: the response body is already fully in memory, so memory use still grows
+ * with the number of statements, by one small record each.
+ *
+ * @param fields     Top-level scalar fields in response order; an array summaryStatementInfo is kept as an empty
+ *                   list, its entries are in {@code statements}
+ * @param statements Entries of summaryStatementInfo that are objects, in order
+ */
+public record AnalysisSummary(Map<String, Object> fields, List<StatementSummary> statements) {
+    private static final String STATEMENT_INFO = "summaryStatementInfo";
+
+    public AnalysisSummary {
+        fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+        statements = List.copyOf(statements);
+    }
+
+    /**
+     * Summary with the given scalar fields and statements, mostly for tests
+     */
+    public static AnalysisSummary of(Map<String, ?> fields, List<StatementSummary> statements) {
+        Map<String, Object> summaryFields = new LinkedHashMap<>(fields);
+        summaryFields.put(STATEMENT_INFO, List.of());
+        return new AnalysisSummary(summaryFields, statements);
+    }
+
+    public static AnalysisSummary read(JsonParser parser) throws IOException {
+        if (!ApiResultReader.isObject(parser)) {
+            return null;
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        List<StatementSummary> statements = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(STATEMENT_INFO) && value == JsonToken.START_ARRAY) {
+                fields.put(field, List.of());
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    StatementSummary statement = StatementSummary.read(parser);
+                    if (statement != null) {
+                        statements.add(statement);
+                    }
+                }
+            } else if (value.isScalarValue()) {
+                fields.put(field, scalar(parser, value));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new AnalysisSummary(fields, statements);
+    }
+
+    private static Object scalar(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+            case VALUE_TRUE, VALUE_FALSE -> parser.getBooleanValue();
+            case VALUE_NULL -> null;
+            default -> parser.getText();
+        };
+    }
+
+    /**
+     * @return Value of a top-level scalar field as text, or null if it is absent
+     */
+    public String attribute(String name) {
+        Object value = fields.get(name);
+        return value instanceof List ? null : Objects.toString(value, null);
+    }
+
+    /**
+     * @return Number of entries in summaryStatementInfo
+     */
+    public int statementCount() {
+        return statements.size();
+    }
+
+    /**
+     * @return ID of the first statement, or null if there is none
+     */
+    public String firstStatementId() {
+        return statements.stream().map(StatementSummary::analysisStmtId).filter(Objects::nonNull).findFirst().orElse(null);
+    }
+
+    /**
+     * Response data in its original shape, with the statements reduced to the fields of {@link StatementSummary}
+     */
+    @JsonValue
+    public Map<String, Object> payload() {
+        if (!(fields.get(STATEMENT_INFO) instanceof List)) {
+            return fields;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>(fields);
+        payload.put(STATEMENT_INFO, statements);
+        return payload;
+    }
+}
@@ -0,0 +1,83 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Streaming reader of PawSQL API responses
+ * <p>
+ * Reads the {@code code}/{@code message}/{@code data} envelope token by token and hands the data value to a
+ * {@link DataReader}. Typed readers materialize only the fields they use and skip everything else without
+ * building a tree, which matters for large analysis summaries and statement details.
+ */
+public final class ApiResultReader {
+
+    /**
+     * Reads data as nested maps and lists, like plain Jackson databinding
+     */
+    public static final DataReader<Object> UNTYPED = parser -> parser.readValueAs(Object.class);
+
+    private ApiResultReader() {
+    }
+
+    /**
+     * Reads the data value of a response
+     */
+    @FunctionalInterface
+    public interface DataReader<T> {
+        /**
+         * @param parser Parser positioned at the first token of the value, which is not null; must be left at its last token
+         */
+        T read(JsonParser parser) throws IOException;
+    }
+
+    public static ApiResult read(ObjectMapper objectMapper, byte[] body, DataReader<?> dataReader) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "API response is not a JSON object");
+            }
+            int code = 0;
+            String message = null;
+            Object data = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "code" -> code = parser.getValueAsInt();
+                    case "message" -> message = text(parser);
+                    case "data" -> data = value == JsonToken.VALUE_NULL ? null : dataReader.read(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new ApiResult(code, message, data);
+        }
+    }
+
+    /**
+     * @return The current scalar value as text, or null if it is null or a structure, which is skipped
+     */
+    public static String text(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    /**
+     * Skip the current value unless it is an object
+     *
+     * @return Whether the parser is at the start of an object
+     */
+    public static boolean isObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pawsql.mcp.model;
+
+/**
+ * Counters of a local result cache
+ *
+ * @param hits        lookups served from the cache
+ * @param misses      lookups that had to go to PawSQL
+ * @param evictions   entries dropped because the cache was full
+ * @param expirations entries dropped because their TTL elapsed
+ * @param size        entries currently cached
+ */
+public record CacheStats(long hits, long misses, long evictions, long expirations, int size) {
+}
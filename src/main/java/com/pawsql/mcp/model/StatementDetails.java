@@ -0,0 +1,115 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * getStatementDetails response, reduced to the fields the reports use
+ *
+ * @param analysisStmtId ID of the analyzed statement
+ * @param detailMarkdown Markdown report of the statement, possibly truncated; null if PawSQL returned none
+ * @param detailLength   Length in characters of the detailMarkdown returned by PawSQL
+ */
+public record StatementDetails(String analysisStmtId, String detailMarkdown, long detailLength) {
+
+    /**
+     * @return Whether detailMarkdown holds only the beginning of the report returned by PawSQL
+     */
+    public boolean truncated() {
+        return detailMarkdown != null && detailMarkdown.length() < detailLength;
+    }
+
+    /**
+     * Data reader of a getStatementDetails response that keeps at most {@code maxDetailLength} characters of
+     * detailMarkdown, 0 for no limit
+     */
+    public static ApiResultReader.DataReader<StatementDetails> reader(int maxDetailLength) {
+        return parser -> read(parser, maxDetailLength);
+    }
+
+    public static StatementDetails read(JsonParser parser) throws IOException {
+        return read(parser, 0);
+    }
+
+    public static StatementDetails read(JsonParser parser, int maxDetailLength) throws IOException {
+        if (!ApiResultReader.isObject(parser)) {
+            return null;
+        }
+        String analysisStmtId = null;
+        String detailMarkdown = null;
+        long detailLength = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "analysisStmtId" -> analysisStmtId = ApiResultReader.text(parser);
+                case "detailMarkdown" -> {
+                    if (value != JsonToken.VALUE_STRING || maxDetailLength <= 0) {
+                        detailMarkdown = ApiResultReader.text(parser);
+                        detailLength = detailMarkdown != null ? detailMarkdown.length() : 0;
+                    } else {
+                        // The parser still decodes the whole value into its buffer, and the body is already in memory;
+                        // writing it out keeps only the head, so just the capped String is allocated
+                        CappedWriter writer = new CappedWriter(maxDetailLength);
+                        parser.getText(writer);
+                        detailMarkdown = writer.text();
+                        detailLength = writer.length;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new StatementDetails(analysisStmtId, detailMarkdown, detailLength);
+    }
+
+    /**
+     * Keeps the first {@code limit} characters written to it and counts the rest
+     */
+    private static final class CappedWriter extends Writer {
+        private final StringBuilder head;
+        private final int limit;
+        private long length;
+
+        CappedWriter(int limit) {
+            this.limit = limit;
+            this.head = new StringBuilder(Math.min(limit, 8192));
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int count) {
+            length += count;
+            int room = limit - head.length();
+            if (room > 0) {
+                head.append(chars, offset, Math.min(room, count));
+            }
+        }
+
+        @Override
+        public void write(String text, int offset, int count) {
+            length += count;
+            int room = limit - head.length();
+            if (room > 0) {
+                head.append(text, offset, offset + Math.min(room, count));
+            }
+        }
+
+        String text() {
+            // Do not end on half of a surrogate pair
+            if (length > head.length() && !head.isEmpty() && Character.isHighSurrogate(head.charAt(head.length() - 1))) {
+                head.setLength(head.length() - 1);
+            }
+            return head.toString();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Entry of summaryStatementInfo in a getAnalysisSummary response, reduced to the statement ID and its improvement
+ *
+ * @param performanceImprovement Improvement as reported by PawSQL, e.g. "99%"
+ */
+public record StatementSummary(String analysisStmtId, String performanceImprovement) {
+
+    public static StatementSummary read(JsonParser parser) throws IOException {
+        if (!ApiResultReader.isObject(parser)) {
+            return null;
+        }
+        String analysisStmtId = null;
+        String performanceImprovement = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "analysisStmtId" -> analysisStmtId = ApiResultReader.text(parser);
+                case "performanceImprovement" -> performanceImprovement = ApiResultReader.text(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new StatementSummary(analysisStmtId, performanceImprovement);
+    }
+}
@@ -0,0 +1,33 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * getUserKey response
+ *
+ * @param apikey      API key to send as userKey
+ * @param frontendUrl Base URL of the PawSQL web UI
+ */
+public record UserKey(String apikey, String frontendUrl) {
+
+    public static UserKey read(JsonParser parser) throws IOException {
+        if (!ApiResultReader.isObject(parser)) {
+            return null;
+        }
+        String apikey = null;
+        String frontendUrl = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "apikey" -> apikey = ApiResultReader.text(parser);
+                case "frontendUrl" -> frontendUrl = ApiResultReader.text(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new UserKey(apikey, frontendUrl);
+    }
+}
@@ -0,0 +1,45 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Workspace record of the listWorkspaces response, reduced to the fields the tools report
+ *
+ * @param dbHost Host of the database the workspace is connected to, null for offline workspaces
+ */
+public record Workspace(String workspaceId, String workspaceName, String dbType, String dbHost, String status) {
+
+    /**
+     * @return Whether optimizations can be validated against a database in this workspace
+     */
+    public boolean canValidate() {
+        return dbHost != null;
+    }
+
+    public static Workspace read(JsonParser parser) throws IOException {
+        if (!ApiResultReader.isObject(parser)) {
+            return null;
+        }
+        String workspaceId = null;
+        String workspaceName = null;
+        String dbType = null;
+        String dbHost = null;
+        String status = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "workspaceId" -> workspaceId = ApiResultReader.text(parser);
+                case "workspaceName" -> workspaceName = ApiResultReader.text(parser);
+                case "dbType" -> dbType = ApiResultReader.text(parser);
+                case "dbHost" -> dbHost = ApiResultReader.text(parser);
+                case "status" -> status = ApiResultReader.text(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new Workspace(workspaceId, workspaceName, dbType, dbHost, status);
+    }
+}
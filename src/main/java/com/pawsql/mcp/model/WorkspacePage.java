@@ -0,0 +1,73 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of the listWorkspaces response
+ *
+ * @param records    Workspace records on this page
+ * @param total      Total number of workspaces, or -1 if PawSQL did not report it
+ * @param pageNumber 1-based page number
+ * @param pageSize   Requested page size
+ */
+public record WorkspacePage(List<Workspace> records, long total, int pageNumber, int pageSize) {
+
+    /**
+     * Read a page from a listWorkspaces response
+     */
+    public static WorkspacePage from(ApiResult result, int pageNumber, int pageSize) {
+        if (result == null || !(result.data() instanceof WorkspacePage page)) {
+            return new WorkspacePage(Collections.emptyList(), 0, pageNumber, pageSize);
+        }
+        return page;
+    }
+
+    /**
+     * Data reader of a listWorkspaces response for the given page
+     */
+    public static ApiResultReader.DataReader<WorkspacePage> reader(int pageNumber, int pageSize) {
+        return parser -> read(parser, pageNumber, pageSize);
+    }
+
+    public static WorkspacePage read(JsonParser parser, int pageNumber, int pageSize) throws IOException {
+        if (!ApiResultReader.isObject(parser)) {
+            return null;
+        }
+        List<Workspace> records = new ArrayList<>();
+        long total = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("records") && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    Workspace workspace = Workspace.read(parser);
+                    if (workspace != null) {
+                        records.add(workspace);
+                    }
+                }
+            } else if (field.equals("total") && value.isNumeric()) {
+                total = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new WorkspacePage(records, total, pageNumber, pageSize);
+    }
+
+    /**
+     * @return Number of pages, or -1 if the total is unknown
+     */
+    public int totalPages() {
+        return total < 0 ? -1 : (int) ((total + pageSize - 1) / pageSize);
+    }
+
+    public boolean hasNext() {
+        return total >= 0 ? (long) pageNumber * pageSize < total : records.size() == pageSize;
+    }
+}
@@ -0,0 +1,79 @@
+package com.pawsql.mcp.service;
+
+/**
+ * Adjusts the limit of a {@link Bulkhead} to the latency observed on its endpoint (additive increase, multiplicative decrease)
+ * <p>
+ * A smoothed latency baseline is kept from successful calls. While calls succeed within {@code latencyTolerance}
+ * times the baseline and the bulkhead is at least half used, the limit grows by about one per round of calls.
+ * A backend failure or a call slower than that shrinks the limit by {@code backoffRatio}, at most once per round:
+ * calls that started before the last decrease do not decrease it again.
+ */
+public class AdaptiveConcurrencyLimit {
+    private final Bulkhead bulkhead;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double smoothing;
+
+    private double limit;
+    private double baselineNanos = -1;
+    private boolean decreased;
+    private long lastDecreaseNanos;
+
+    /**
+     * @param bulkhead         Bulkhead whose limit is adjusted; its current limit is the starting point
+     * @param minLimit         Lowest limit
+     * @param maxLimit         Highest limit
+     * @param backoffRatio     Factor applied to the limit on congestion, between 0 and 1
+     * @param latencyTolerance Latency, relative to the baseline, above which a call counts as congestion
+     * @param smoothing        Weight of a new sample in the latency baseline, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimit(Bulkhead bulkhead, int minLimit, int maxLimit, double backoffRatio,
+                                    double latencyTolerance, double smoothing) {
+        this.bulkhead = bulkhead;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, bulkhead.getLimit()));
+        bulkhead.setLimit((int) limit);
+    }
+
+    /**
+     * Record a completed call; must be called before the call releases its bulkhead slot
+     *
+     * @param startNanos   {@link System#nanoTime()} when the call was sent
+     * @param latencyNanos Duration of the call
+     * @param failed       Whether the call failed because of the backend (timeout, I/O error, 5xx)
+     */
+    public synchronized void onSample(long startNanos, long latencyNanos, boolean failed) {
+        boolean slow = baselineNanos > 0 && latencyNanos > baselineNanos * latencyTolerance;
+        if (!failed) {
+            baselineNanos = baselineNanos < 0 ? latencyNanos : baselineNanos + smoothing * (latencyNanos - baselineNanos);
+        }
+
+        if (failed || slow) {
+            if (!decreased || startNanos - lastDecreaseNanos > 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                decreased = true;
+                lastDecreaseNanos = System.nanoTime();
+                apply();
+            }
+        } else if (bulkhead.getInFlight() * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+            apply();
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    private void apply() {
+        if (bulkhead.getLimit() != (int) limit) {
+            bulkhead.setLimit((int) limit);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.AnalysisSummary;
+import com.pawsql.mcp.model.ApiResult;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.StdioServerTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.ServerMcpTransport;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Waits for a PawSQL analysis to finish by polling getAnalysisSummary with exponential backoff and jitter
+ * <p>
+ * No thread is blocked while waiting: each poll is scheduled on a single timer thread and runs on the
+ * async HTTP client. In STDIO mode progress is published to the MCP client as logging notifications; over SSE
+ * these notifications would go to every connected client, so none are sent. Polling stops when the analysis is
+ * finished, the deadline expires, {@code max-attempts} is reached or the returned future is cancelled; cancelling
+ * also aborts a poll whose request is in flight.
+ */
+@Component
+public class AnalysisPoller {
+    private static final Logger log = LoggerFactory.getLogger(AnalysisPoller.class);
+
+    private final PawsqlApiService apiService;
+    private final PawsqlOptimizeProperties.Polling settings;
+    private final ObjectProvider<McpSyncServer> mcpServer;
+    private final ObjectProvider<ServerMcpTransport> mcpTransport;
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+    private final Set<String> pendingStatuses;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pawsql-analysis-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AnalysisPoller(PawsqlApiService apiService, PawsqlOptimizeProperties optimizeProperties,
+                          ObjectProvider<McpSyncServer> mcpServer, ObjectProvider<ServerMcpTransport> mcpTransport,
+                          ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.apiService = apiService;
+        this.settings = optimizeProperties.getPolling();
+        this.mcpServer = mcpServer;
+        this.mcpTransport = mcpTransport;
+        this.observationRegistry = observationRegistry;
+        this.pendingStatuses = settings.getPendingStatuses().stream()
+                .map(status -> status.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Poll the summary of an analysis until it is finished
+     *
+     * @param analysisId Analysis ID
+     * @param deadline   Deadline of the whole wait, polling fails with {@link DeadlineExceededException} after it
+     * @return Summary of the finished analysis; cancelling it stops polling. Fails with {@link DeadlineExceededException}
+     * if the analysis is still running after {@code max-attempts} polls
+     */
+    public CompletableFuture<ApiResult> awaitSummary(String analysisId, Deadline deadline) {
+        Observation parent = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP).getCurrentObservation();
+        Poll poll = new Poll(analysisId, deadline, parent);
+        poll.attempt();
+        return poll.result;
+    }
+
+    /**
+     * @return Whether the summary describes an analysis that will not change anymore; error results are final
+     * @throws IllegalStateException if a summary has no status, since it cannot tell whether the analysis is running
+     */
+    boolean isFinished(ApiResult summary) {
+        if (summary.code() != 200 || !(summary.data() instanceof AnalysisSummary data)) {
+            return true;
+        }
+        String status = data.attribute(settings.getStatusField());
+        if (status == null) {
+            throw new IllegalStateException("Summary of analysis " + data.attribute("analysisId") + " has no "
+                    + settings.getStatusField() + ", cannot tell whether it is finished");
+        }
+        return !pendingStatuses.contains(status.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Delay before the given poll, growing exponentially up to the maximum with part of it randomized
+     * so that concurrent polls spread out
+     *
+     * @param attempt 0-based number of the poll
+     */
+    Duration backoff(int attempt) {
+        return new Backoff(settings.getInitialDelay(), settings.getMaxDelay(), settings.getMultiplier(), settings.getJitter())
+                .delay(attempt);
+    }
+
+    private void notifyProgress(String message) {
+        // Logging notifications are server-wide; only the STDIO transport has a single client to send them to
+        if (!(mcpTransport.getIfAvailable() instanceof StdioServerTransport)) {
+            return;
+        }
+        McpSyncServer server = mcpServer.getIfAvailable();
+        if (server == null) {
+            return;
+        }
+        try {
+            server.loggingNotification(McpSchema.LoggingMessageNotification.builder()
+                    .level(McpSchema.LoggingLevel.INFO)
+                    .logger("pawsql-analysis")
+                    .data(message)
+                    .build());
+        } catch (Exception e) {
+            log.debug("Failed to send progress notification: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * State of one analysis being polled
+     */
+    private final class Poll {
+        private final String analysisId;
+        private final Deadline deadline;
+        private final Observation parent;
+        private final long startedAtNanos = System.nanoTime();
+        private final CompletableFuture<ApiResult> result = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> nextPoll;
+        private volatile CompletableFuture<ApiResult> inFlight;
+        private int attempts;
+
+        Poll(String analysisId, Deadline deadline, Observation parent) {
+            this.analysisId = analysisId;
+            this.deadline = deadline;
+            this.parent = parent;
+            result.whenComplete((summary, e) -> {
+                ScheduledFuture<?> scheduled = nextPoll;
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+                CompletableFuture<ApiResult> call = inFlight;
+                if (call != null) {
+                    call.cancel(true);
+                }
+            });
+        }
+
+        void attempt() {
+            if (result.isDone()) {
+                return;
+            }
+            attempts++;
+            CompletableFuture<ApiResult> call = apiService.getAnalysisSummaryAsync(analysisId, deadline);
+            inFlight = call;
+            // The poll may have ended while this request was started, after the listener on result looked at inFlight
+            if (result.isDone()) {
+                call.cancel(true);
+                return;
+            }
+            call.whenComplete(this::onSummary);
+        }
+
+        private void onSummary(ApiResult summary, Throwable e) {
+            if (e != null) {
+                result.completeExceptionally(e);
+                return;
+            }
+            boolean finished;
+            try {
+                finished = summary == null || isFinished(summary);
+            } catch (IllegalStateException missingStatus) {
+                result.completeExceptionally(missingStatus);
+                return;
+            }
+            if (finished) {
+                if (attempts > 1) {
+                    notifyProgress("Analysis " + analysisId + " finished after " + elapsedSeconds() + "s");
+                }
+                result.complete(summary);
+            } else if (attempts >= settings.getMaxAttempts()) {
+                result.completeExceptionally(new DeadlineExceededException("Analysis " + analysisId + " is still running after "
+                        + attempts + " checks, call get_analysis_result with analysisId " + analysisId + " later"));
+            } else {
+                scheduleNext();
+            }
+        }
+
+        private void scheduleNext() {
+            Duration delay = backoff(attempts - 1);
+            Duration remaining = deadline.remaining();
+            if (remaining != null && remaining.compareTo(delay) <= 0) {
+                result.completeExceptionally(new DeadlineExceededException(
+                        "Analysis " + analysisId + " did not finish within the deadline"));
+                return;
+            }
+            log.debug("Analysis {} not finished yet, polling again in {} ms", analysisId, delay.toMillis());
+            notifyProgress("Analysis " + analysisId + " is still running (" + elapsedSeconds() + "s elapsed, check " + attempts + ")");
+            try {
+                // Polls run on the timer thread; keep their API calls in the trace of the call that started polling
+                nextPoll = timer.schedule(() -> PawsqlApiService.inScopeOf(parent, this::attempt), delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+            if (result.isDone() && nextPoll != null) {
+                nextPoll.cancel(false);
+            }
+        }
+
+        private long elapsedSeconds() {
+            return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAtNanos);
+        }
+    }
+}
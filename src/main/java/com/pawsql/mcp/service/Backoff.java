@@ -0,0 +1,27 @@
+package com.pawsql.mcp.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter
+ *
+ * @param initialDelay Delay before the first retry
+ * @param maxDelay     Upper bound of any delay
+ * @param multiplier   Factor applied to the delay after each attempt
+ * @param jitter       Fraction of each delay that is randomized, between 0 and 1; jitter only ever shortens a delay
+ */
+public record Backoff(Duration initialDelay, Duration maxDelay, double multiplier, double jitter) {
+
+    /**
+     * @param attempt 0-based number of the retry
+     * @return Delay before that retry, at least one millisecond
+     */
+    public Duration delay(int attempt) {
+        double exponential = initialDelay.toMillis() * Math.pow(multiplier, attempt);
+        double capped = Math.min(exponential, maxDelay.toMillis());
+        double boundedJitter = Math.min(Math.max(jitter, 0), 1);
+        double randomized = capped * (1 - boundedJitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(Math.max(1, Math.round(randomized)));
+    }
+}
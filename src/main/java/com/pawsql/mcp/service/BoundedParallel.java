@@ -0,0 +1,79 @@
+package com.pawsql.mcp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs asynchronous calls for a list of items with at most {@code concurrency} calls in flight
+ * <p>
+ * A new call is started whenever one completes, so no thread is needed to wait for free slots.
+ * Results keep the order of the input items. The first failure fails the whole result and no further calls are
+ * started; calls already in flight are left to finish and their results are discarded.
+ *
+ * @param <T> Item type
+ * @param <R> Result type
+ */
+public final class BoundedParallel<T, R> {
+    private final List<T> items;
+    private final Function<T, CompletableFuture<R>> call;
+    private final List<R> results;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<List<R>> completion = new CompletableFuture<>();
+
+    private BoundedParallel(List<T> items, Function<T, CompletableFuture<R>> call) {
+        this.items = items;
+        this.call = call;
+        this.results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        this.remaining = new AtomicInteger(items.size());
+    }
+
+    /**
+     * @param items       Items to process
+     * @param concurrency Maximum number of calls in flight
+     * @param call        Starts the call for one item
+     * @return Future of the results, in item order
+     */
+    public static <T, R> CompletableFuture<List<R>> map(List<T> items, int concurrency, Function<T, CompletableFuture<R>> call) {
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        BoundedParallel<T, R> parallel = new BoundedParallel<>(items, call);
+        for (int i = 0; i < Math.min(Math.max(1, concurrency), items.size()); i++) {
+            parallel.startNext();
+        }
+        return parallel.completion;
+    }
+
+    private void startNext() {
+        int index = nextIndex.getAndIncrement();
+        if (index >= items.size() || completion.isDone()) {
+            return;
+        }
+
+        CompletableFuture<R> future;
+        try {
+            future = call.apply(items.get(index));
+        } catch (RuntimeException e) {
+            completion.completeExceptionally(e);
+            return;
+        }
+
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                completion.completeExceptionally(e);
+                return;
+            }
+            results.set(index, result);
+            if (remaining.decrementAndGet() == 0) {
+                completion.complete(results);
+            } else {
+                startNext();
+            }
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.pawsql.mcp.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of calls in flight to one PawSQL API endpoint
+ * <p>
+ * Callers beyond the limit wait in a bounded FIFO queue for at most their own deadline and are rejected with
+ * {@link ThrottledException} after it, or at once when the queue is full. Waiting is non-blocking: a permit is
+ * a future, completed when a running call releases its permit.
+ */
+public class Bulkhead {
+    private final String name;
+    private final int maxQueue;
+    private final Deque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private int limit;
+    private int inFlight;
+
+    public Bulkhead(String name, int limit, int maxQueue) {
+        this.name = name;
+        this.limit = Math.max(1, limit);
+        this.maxQueue = Math.max(0, maxQueue);
+    }
+
+    /**
+     * @param maxWait Longest acceptable wait for a permit, null for no limit
+     * @return Permit, to be released once the call is complete
+     */
+    public CompletableFuture<Permit> acquire(Duration maxWait) {
+        CompletableFuture<Permit> waiter;
+        synchronized (this) {
+            if (inFlight < limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit());
+            }
+            if (waiters.size() >= maxQueue || (maxWait != null && maxWait.isZero())) {
+                rejected.incrementAndGet();
+                return CompletableFuture.failedFuture(new ThrottledException(
+                        "Too many concurrent calls to PawSQL API endpoint " + name + ", limit " + limit));
+            }
+            waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+        }
+
+        CompletableFuture<Permit> result = new CompletableFuture<>();
+        if (maxWait != null) {
+            waiter.orTimeout(Math.max(1, maxWait.toMillis()), TimeUnit.MILLISECONDS);
+        }
+        waiter.whenComplete((permit, e) -> {
+            if (e == null) {
+                result.complete(permit);
+                return;
+            }
+            synchronized (this) {
+                waiters.remove(waiter);
+            }
+            rejected.incrementAndGet();
+            result.completeExceptionally(new ThrottledException(
+                    "Timed out waiting for a free slot of PawSQL API endpoint " + name + ", limit " + limit));
+        });
+        return result;
+    }
+
+    /**
+     * Change the number of calls allowed in flight; calls already running are not affected
+     */
+    public void setLimit(int newLimit) {
+        synchronized (this) {
+            limit = Math.max(1, newLimit);
+        }
+        grantWaiting();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return waiters.size();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        grantWaiting();
+    }
+
+    /**
+     * Hand free slots to waiting callers; futures are completed outside the lock since completing one runs the caller's continuation
+     */
+    private void grantWaiting() {
+        while (true) {
+            CompletableFuture<Permit> waiter;
+            synchronized (this) {
+                if (inFlight >= limit || waiters.isEmpty()) {
+                    return;
+                }
+                waiter = waiters.pollFirst();
+                inFlight++;
+            }
+            if (!waiter.complete(new Permit())) {
+                // The waiter timed out in the meantime, give the slot back
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Slot of one call; releasing it more than once has no effect
+     */
+    public final class Permit implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                Bulkhead.this.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.pawsql.mcp.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker guarding one PawSQL API endpoint
+ * <p>
+ * While closed, the outcomes of the last {@code windowSize} calls are kept and the circuit opens once the failure
+ * rate reaches the threshold. An open circuit rejects calls for {@code openDuration}, then turns half-open and lets
+ * {@code halfOpenProbes} calls through: the circuit closes if they all succeed and opens again on the first failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Notified of every state transition, while the breaker's lock is held
+     */
+    public interface Listener {
+        void onStateChange(String name, State from, State to);
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final Listener listener;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenProbes, Listener listener) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenProbes, listener, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   Duration openDuration, int halfOpenProbes, Listener listener, LongSupplier nanoClock) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.listener = listener;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Ask to make a call; every granted call must be followed by {@link #onSuccess()}, {@link #onFailure()}
+     * or {@link #onIgnored()}
+     *
+     * @return Whether the call may be made
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < openDurationNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            releaseProbe();
+            if (++probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (windowCalls >= minimumCalls && (double) windowFailures / windowCalls >= failureRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Report a granted call whose outcome says nothing about the endpoint's health
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            releaseProbe();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return Time until an open circuit lets a probe through, zero if it is not open
+     */
+    public synchronized Duration getRetryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openDurationNanos - (nanoClock.getAsLong() - openedAtNanos)));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void releaseProbe() {
+        if (probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    private void transitionTo(State newState) {
+        State previous = state;
+        state = newState;
+        switch (newState) {
+            case OPEN -> openedAtNanos = nanoClock.getAsLong();
+            case HALF_OPEN -> {
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+            case CLOSED -> {
+                windowNext = 0;
+                windowCalls = 0;
+                windowFailures = 0;
+            }
+        }
+        if (listener != null) {
+            listener.onStateChange(name, previous, newState);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.pawsql.mcp.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling a PawSQL API endpoint whose circuit breaker is open
+ */
+public class CircuitOpenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String endpoint, Duration retryAfter) {
+        super("PawSQL API endpoint " + endpoint + " is unavailable, retry after " + Math.max(1, retryAfter.toSeconds()) + "s");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return Time until the circuit lets a probe call through
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,89 @@
+package com.pawsql.mcp.service;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a chain of PawSQL API calls must complete
+ * <p>
+ * Based on {@link System#nanoTime()}, so it is not affected by wall clock changes.
+ */
+public final class Deadline {
+    private static final Deadline NONE = new Deadline(0L, false);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * @return Deadline that never expires
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * @param budget Time allowed from now
+     * @return Deadline expiring after the given budget, or {@link #none()} if the budget is null
+     */
+    public static Deadline after(Duration budget) {
+        if (budget == null) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return Time left before expiry, zero once expired; {@code null} if the deadline is unbounded
+     */
+    public Duration remaining() {
+        if (!bounded) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0L, expiresAtNanos - System.nanoTime()));
+    }
+
+    /**
+     * Cap a timeout by the time left before this deadline
+     *
+     * @param timeout Configured timeout
+     * @return The smaller of the timeout and the remaining time
+     */
+    public Duration cap(Duration timeout) {
+        Duration remaining = remaining();
+        if (remaining == null) {
+            return timeout;
+        }
+        return timeout == null || remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    /**
+     * @param other Another deadline
+     * @return Whichever of the two deadlines expires first
+     */
+    public Deadline min(Deadline other) {
+        if (!other.bounded) {
+            return this;
+        }
+        if (!bounded) {
+            return other;
+        }
+        return expiresAtNanos - other.expiresAtNanos <= 0 ? this : other;
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline[remaining=" + remaining() + "]" : "Deadline[none]";
+    }
+}
@@ -0,0 +1,16 @@
+package com.pawsql.mcp.service;
+
+/**
+ * Thrown when a PawSQL API call cannot complete within its deadline
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
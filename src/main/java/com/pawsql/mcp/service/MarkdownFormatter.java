@@ -0,0 +1,130 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.model.StatementDetails;
+import com.pawsql.mcp.model.Workspace;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Markdown returned by the tools: the workspace table and the parts of an optimization report
+ */
+final class MarkdownFormatter {
+    private final String frontendUrl;
+
+    /**
+     * @param frontendUrl Base URL of the PawSQL web interface, used for report and workspace links
+     */
+    MarkdownFormatter(String frontendUrl) {
+        this.frontendUrl = frontendUrl;
+    }
+
+    static String workspaceTable(List<Workspace> records) {
+        StringBuilder markdownBuilder = new StringBuilder()
+                .append("\n## Workspace List\n")
+                .append("| Workspace Name | Workspace ID | Database Type | Can Validate Optimization | Status |\n")
+                .append("|---------------|--------------|--------------|------------------------|--------|\n");
+
+        for (Workspace workspace : records) {
+            String tempDbType = workspace.dbType() != null ? workspace.dbType() : "-";
+            String validationStatus = workspace.canValidate() ? "Yes" : "No";
+            String status = workspace.status() != null ? workspace.status() : "-";
+
+            markdownBuilder.append(String.format("| %s | %s | %s | %s | %s |\n",
+                    workspace.workspaceName(),
+                    workspace.workspaceId(),
+                    tempDbType,
+                    validationStatus,
+                    status));
+        }
+
+        return markdownBuilder.toString();
+    }
+
+    /**
+     * @return Report of one statement: report link, analysis details and optimization suggestions
+     */
+    Map<String, String> report(String analysisStmtId, StatementDetails detailsData, String workspaceId) {
+        Map<String, String> markdownParts = new LinkedHashMap<>();
+
+        // Part 1: Analysis report link
+        markdownParts.put("reportLink", reportLink(analysisStmtId));
+
+        // Part 2: Analysis environment details
+        markdownParts.put("detail", detail(detailsData, analysisStmtId));
+
+        // Part 3: Optimization suggestions
+        markdownParts.put("suggestions", suggestions(workspaceId));
+        return markdownParts;
+    }
+
+    String reportLink(String analysisStmtId) {
+        return String.format("# SQL Optimization Analysis Report\n\n## 📊 Analysis Report\nView detailed analysis report: [Detailed Analysis Report](%s)\n", reportUrl(analysisStmtId));
+    }
+
+    /**
+     * @return detailMarkdown of the statement, followed by a link to the full report if it was truncated
+     */
+    String detail(StatementDetails detailsData, String analysisStmtId) {
+        String detail = Objects.requireNonNullElse(detailsData.detailMarkdown(), "");
+        if (!detailsData.truncated()) {
+            return detail;
+        }
+        StringBuilder builder = new StringBuilder(detail.length() + 256).append(detail);
+        if (countCodeFences(detail) % 2 != 0) {
+            // Close the code block the cut fell into, so the note renders as text
+            builder.append("\n```");
+        }
+        return builder.append(String.format("\n\n> Details truncated to %d of %d characters. View the full report: [Detailed Analysis Report](%s)\n",
+                detail.length(), detailsData.detailLength(), reportUrl(analysisStmtId))).toString();
+    }
+
+    String suggestions(String workspaceId) {
+        StringBuilder suggestionsBuilder = new StringBuilder();
+        if (workspaceId == null) {
+            appendBasicSuggestions(suggestionsBuilder);
+        } else {
+            appendAdvancedSuggestions(suggestionsBuilder);
+        }
+        return suggestionsBuilder.toString();
+    }
+
+    private static int countCodeFences(String markdown) {
+        int count = 0;
+        for (int i = markdown.indexOf("```"); i >= 0; i = markdown.indexOf("```", i + 3)) {
+            count++;
+        }
+        return count;
+    }
+
+    private String reportUrl(String analysisStmtId) {
+        return frontendUrl + "/statement/" + analysisStmtId;
+    }
+
+    private void appendBasicSuggestions(StringBuilder builder) {
+        builder.append("\n## Methods to Improve SQL Optimization Analysis Accuracy\n")
+                .append("To get more accurate SQL optimization suggestions, you can:\n\n")
+                .append("### Method 1: Provide Table Structure Definitions\n")
+                .append("Provide CREATE TABLE statements for relevant tables, and we will provide more accurate optimization suggestions based on the table structure.\n\n")
+                .append("### Method 2: Use PawSQL Professional Platform\n")
+                .append("Visit: " + frontendUrl + "/app/workspaces\n")
+                .append("On the professional platform, you can:\n")
+                .append("• Create a validation workspace using database connection (recommended)\n")
+                .append("  - Support optimization effect validation\n")
+                .append("  - Provide visual execution plans\n")
+                .append("  - Display detailed performance metrics\n")
+                .append("• Create offline structure workspace by inputting DDL\n");
+    }
+
+    private void appendAdvancedSuggestions(StringBuilder builder) {
+        builder.append("\n## Further Improve Optimization Results\n")
+                .append("You are already using a workspace for SQL optimization. To get more precise analysis results:\n\n")
+                .append("### Upgrade to Validation Workspace\n")
+                .append("Visit: " + frontendUrl + "/app/workspaces\n")
+                .append("By configuring database connection information, you will get:\n")
+                .append("• Precise optimization suggestions based on real data distribution\n")
+                .append("• Complete index usage and execution plan analysis\n");
+    }
+}
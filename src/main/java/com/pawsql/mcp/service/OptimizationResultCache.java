@@ -0,0 +1,164 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.ApiResult;
+import com.pawsql.mcp.model.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-evicting cache of optimize_sql reports
+ * <p>
+ * Entries are kept in least-recently-used order; the oldest entry is evicted once {@code max-size} is exceeded.
+ * Entries older than {@code ttl} are no longer served, but are kept for another {@code stale-ttl} as a fallback
+ * while PawSQL is unavailable, and dropped on lookup after that.
+ */
+@Component
+public class OptimizationResultCache {
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long staleTtlNanos;
+    private final Map<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public OptimizationResultCache(PawsqlOptimizeProperties optimizeProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        PawsqlOptimizeProperties.Cache cache = optimizeProperties.getCache();
+        this.enabled = cache.isEnabled();
+        this.maxSize = cache.getMaxSize();
+        this.ttlNanos = cache.getTtl().toNanos();
+        this.staleTtlNanos = cache.getStaleTtl().toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        FunctionCounter.builder("pawsql.cache.requests", hits, AtomicLong::get)
+                .description("optimize_sql report cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("pawsql.cache.requests", misses, AtomicLong::get)
+                .description("optimize_sql report cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("pawsql.cache.evictions", evictions, AtomicLong::get)
+                .description("optimize_sql reports removed from the cache")
+                .tag("cause", "size")
+                .register(registry);
+        FunctionCounter.builder("pawsql.cache.evictions", expirations, AtomicLong::get)
+                .description("optimize_sql reports removed from the cache")
+                .tag("cause", "expired")
+                .register(registry);
+        Gauge.builder("pawsql.cache.size", this, cache -> cache.getStats().size())
+                .description("optimize_sql reports in the cache")
+                .register(registry);
+    }
+
+    /**
+     * Build the cache key of an optimize_sql call
+     */
+    public static Key keyOf(String sql, String dbType, String workspaceId, boolean validateFlag) {
+        return new Key(SqlFingerprint.of(sql, dbType), dbType.toLowerCase(Locale.ROOT), workspaceId, validateFlag);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The cached report, or null on a miss
+     */
+    public ApiResult get(Key key) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = lookup(key);
+            if (entry == null || System.nanoTime() - entry.createdAtNanos() > ttlNanos) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.result();
+        }
+    }
+
+    /**
+     * Look up a report regardless of its age, for use while PawSQL is unavailable
+     *
+     * @return The cached report, possibly expired, or null if there is none within the stale window
+     */
+    public ApiResult getStale(Key key) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = lookup(key);
+            return entry != null ? entry.result() : null;
+        }
+    }
+
+    private Entry lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.createdAtNanos() > ttlNanos + staleTtlNanos) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(Key key, ApiResult result) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(result, System.nanoTime()));
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(), entries.size());
+        }
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    /**
+     * @param fingerprint  {@link SqlFingerprint} of the SQL
+     * @param dbType       Lower-cased database type
+     * @param workspaceId  Workspace used for the analysis, null for workspace-free optimization
+     * @param validateFlag Whether the optimization was validated
+     */
+    public record Key(String fingerprint, String dbType, String workspaceId, boolean validateFlag) {
+    }
+
+    private record Entry(ApiResult result, long createdAtNanos) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.pawsql.mcp.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event covering one HTTP attempt of a non-blocking PawSQL API call
+ * <p>
+ * Begins when the request is handed to the async client, after admission by the rate limiter and bulkhead,
+ * so its duration is network plus PawSQL time.
+ */
+@Name("com.pawsql.mcp.ApiCall")
+@Label("PawSQL API Call")
+@Category({"PawSQL", "HTTP"})
+@Description("One HTTP attempt of a PawSQL API call")
+@StackTrace(false)
+final class PawsqlApiCallEvent extends Event {
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    @Description("HTTP status, 0 if no response was received")
+    int status;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseBytes;
+
+    PawsqlApiCallEvent(String endpoint) {
+        this.endpoint = endpoint;
+    }
+}
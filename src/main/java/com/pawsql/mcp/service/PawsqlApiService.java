@@ -1,16 +1,59 @@
 package com.pawsql.mcp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pawsql.mcp.config.PawsqlClientProperties;
+import com.pawsql.mcp.model.AnalysisSummary;
 import com.pawsql.mcp.model.ApiResult;
+import com.pawsql.mcp.model.ApiResultReader;
 import com.pawsql.mcp.model.DatabaseInfo;
+import com.pawsql.mcp.model.StatementDetails;
+import com.pawsql.mcp.model.UserKey;
+import com.pawsql.mcp.model.WorkspacePage;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.util.Timeout;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.RequestReplySenderContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @Service
 public class PawsqlApiService {
@@ -19,13 +62,41 @@ public class PawsqlApiService {
     private static final String API_VERSION = "v1";
     private static final String API_PATH = "/api/" + API_VERSION;
 
-    private final RestTemplate restTemplate;
+    private final CloseableHttpAsyncClient httpClient;
+    private final PawsqlClientProperties clientProperties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RetryBudget retryBudget;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimit> adaptiveLimits = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Environment environment;
     private final String apiBaseUrl;
     private String apiKey;
+    private String account;
     private String frontendUrl;
 
-    public PawsqlApiService(RestTemplateBuilder restTemplateBuilder) {
-        this.restTemplate = restTemplateBuilder.build();
+    public PawsqlApiService(CloseableHttpAsyncClient pawsqlHttpClient,
+                            PawsqlClientProperties clientProperties,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            ObjectProvider<ObservationRegistry> observationRegistry,
+                            Environment environment) {
+        this.httpClient = pawsqlHttpClient;
+        this.clientProperties = clientProperties;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        this.environment = environment;
+        PawsqlClientProperties.Budget budget = clientProperties.getRetry().getBudget();
+        this.retryBudget = new RetryBudget(budget.getRatio(), budget.getMinRetriesPerSecond(), budget.getMaxBalance());
+        PawsqlClientProperties.RateLimit rateLimit = clientProperties.getRateLimit();
+        this.rateLimiter = rateLimit.isEnabled() ? new TokenBucketRateLimiter(rateLimit.getPermitsPerSecond(), rateLimit.getBurst()) : null;
 
         String edition = getRequiredEnvVar("PAWSQL_EDITION");
         
@@ -52,8 +123,12 @@ public class PawsqlApiService {
         }
     }
 
+    /**
+     * Read a setting from the environment; system properties and command line arguments also work, which lets tests
+     * point the client at a local server
+     */
     private String getRequiredEnvVar(String name) {
-        String value = System.getenv(name);
+        String value = environment.getProperty(name);
         if (value == null || value.isEmpty()) {
             throw new IllegalStateException(name + " environment variable is not set");
         }
@@ -67,11 +142,11 @@ public class PawsqlApiService {
             requestBody.put("email", email);
             requestBody.put("password", password);
 
-            ApiResult response = executeApiCall("/getUserKey", requestBody);
-            if (response != null && response.data() != null) {
-                Map<String, Object> data = (Map<String, Object>) response.data();
-                this.apiKey = (String) data.get("apikey");
-                this.frontendUrl = (String) data.get("frontendUrl");
+            ApiResult response = executeApiCall("/getUserKey", requestBody, UserKey::read);
+            if (response != null && response.data() instanceof UserKey userKey) {
+                this.apiKey = userKey.apikey();
+                this.account = email;
+                this.frontendUrl = userKey.frontendUrl();
                 log.info("API credentials initialized successfully");
             } else {
                 throw new RuntimeException("Failed to get API credentials: Empty response");
@@ -82,23 +157,536 @@ public class PawsqlApiService {
         }
     }
 
-    private ApiResult executeApiCall(String endpoint, Map<String, ?> requestBody) {
+    private ApiResult executeApiCall(String endpoint, Map<String, ?> requestBody, ApiResultReader.DataReader<?> dataReader) {
+        return executeApiCall(endpoint, requestBody, Deadline.none(), dataReader);
+    }
+
+    /**
+     * Blocking form of {@link #executeApiCallAsync(String, Map, Deadline, ApiResultReader.DataReader)}, for the
+     * few calls made outside of a tool call, such as fetching the API key at startup
+     */
+    private ApiResult executeApiCall(String endpoint, Map<String, ?> requestBody, Deadline deadline, ApiResultReader.DataReader<?> dataReader) {
+        try {
+            return executeApiCallAsync(endpoint, requestBody, deadline, dataReader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Execute an API call bounded by both the endpoint's own timeouts and the caller's deadline,
+     * retrying transient failures as allowed by the endpoint's retry policy and the retry budget
+     * <p>
+     * The returned future completes on an I/O dispatcher thread, so no caller thread is parked while the call is in flight.
+     * Cancelling it aborts the exchange in flight and stops further retries.
+     */
+    private CompletableFuture<ApiResult> executeApiCallAsync(String endpoint, Map<String, ?> requestBody, Deadline deadline,
+                                                             ApiResultReader.DataReader<?> dataReader) {
+        PawsqlClientProperties.EndpointTimeouts timeouts = clientProperties.timeoutsFor(endpoint);
+        Deadline callDeadline = deadline.min(Deadline.after(timeouts.deadline()));
+        PawsqlClientProperties.EndpointRetry retry = clientProperties.retryFor(endpoint);
+        HttpHeaders headers = createHeaders(retry);
+        CircuitBreaker circuitBreaker = circuitBreakerFor(endpoint);
+        retryBudget.recordRequest();
+        Observation parent = observationRegistry.getCurrentObservation();
+        Observation observation = startObservation(endpoint, headers);
+        CompletableFuture<ApiResult> result = new CompletableFuture<>();
+        executeApiCallAsync(endpoint, requestBody, dataReader, timeouts, callDeadline, retry, headers, circuitBreaker, result, 1)
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        observation.error(unwrap(e));
+                    }
+                    observation.stop();
+                    // Continuations of the caller run inline on this I/O thread, so give them back the caller's observation
+                    inScopeOf(parent, () -> {
+                        if (e == null) {
+                            result.complete(response);
+                        } else {
+                            result.completeExceptionally(e);
+                        }
+                    });
+                });
+        return result;
+    }
+
+    private CompletableFuture<ApiResult> executeApiCallAsync(String endpoint, Map<String, ?> requestBody, ApiResultReader.DataReader<?> dataReader,
+                                                             PawsqlClientProperties.EndpointTimeouts timeouts, Deadline callDeadline, PawsqlClientProperties.EndpointRetry retry, HttpHeaders headers,
+                                                             CircuitBreaker circuitBreaker, CompletableFuture<?> caller, int attempt) {
+        CompletableFuture<ApiResult> call;
         try {
-            String url = apiBaseUrl + API_PATH + endpoint;
-            ResponseEntity<ApiResult> response = restTemplate.postForEntity(url, requestBody, ApiResult.class);
-            ApiResult result = response.getBody();
+            acquirePermission(endpoint, circuitBreaker, callDeadline);
+            call = admit(endpoint, callDeadline)
+                    .thenCompose(permit -> {
+                        long startNanos = System.nanoTime();
+                        return executeApiCallAsyncOnce(endpoint, requestBody, dataReader, timeouts, callDeadline, headers, caller)
+                                .whenComplete((result, e) -> {
+                                    recordLatency(endpoint, startNanos, e == null ? null : unwrap(e));
+                                    release(permit);
+                                });
+                    })
+                    .whenComplete((result, e) -> recordOutcome(circuitBreaker, e == null ? null : unwrap(e)));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call
+                .handle((result, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    Throwable cause = unwrap(e);
+                    Duration backoff = caller.isCancelled() ? null : retryBackoff(endpoint, retry, headers, attempt, cause, callDeadline);
+                    if (backoff == null) {
+                        return CompletableFuture.<ApiResult>failedFuture(cause);
+                    }
+                    Executor delayed = CompletableFuture.delayedExecutor(backoff.toMillis(), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> {
+                            }, delayed)
+                            .thenCompose(ignored -> executeApiCallAsync(endpoint, requestBody, dataReader, timeouts, callDeadline, retry, headers, circuitBreaker, caller, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Start the {@code pawsql.client} observation of a call, which covers all of its attempts and, with a tracing
+     * bridge present, writes the trace context into the request headers
+     */
+    private Observation startObservation(String endpoint, HttpHeaders headers) {
+        RequestReplySenderContext<HttpHeaders, ApiResult> context = new RequestReplySenderContext<>(
+                (carrier, key, value) -> carrier.set(key, value));
+        context.setCarrier(headers);
+        context.setRemoteServiceName("pawsql");
+        context.setRemoteServiceAddress(apiBaseUrl);
+        return Observation.createNotStarted("pawsql.client", () -> context, observationRegistry)
+                .contextualName("pawsql " + endpointName(endpoint))
+                .lowCardinalityKeyValue("endpoint", endpointName(endpoint))
+                .start();
+    }
+
+    /**
+     * Run the action with the given observation as the current one, or as is if there is none
+     */
+    static void inScopeOf(Observation observation, Runnable action) {
+        if (observation == null) {
+            action.run();
+        } else {
+            observation.scoped(action);
+        }
+    }
 
-            if (result == null) {
-                log.warn("API call returned empty response: {}", endpoint);
-                return null;
+    private CompletableFuture<ApiResult> executeApiCallAsyncOnce(String endpoint, Map<String, ?> requestBody, ApiResultReader.DataReader<?> dataReader,
+                                                                 PawsqlClientProperties.EndpointTimeouts timeouts, Deadline callDeadline, HttpHeaders headers,
+                                                                 CompletableFuture<?> caller) {
+        if (callDeadline.isExpired()) {
+            log.warn("Deadline exceeded before API call: {}", endpoint);
+            return CompletableFuture.failedFuture(new DeadlineExceededException("Deadline exceeded before API call: " + endpoint));
+        }
+
+        PawsqlApiCallEvent event = new PawsqlApiCallEvent(endpointName(endpoint));
+        SimpleHttpRequest request;
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(requestBody);
+            event.requestBytes = body.length;
+            SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.post(apiBaseUrl + API_PATH + endpoint)
+                    .setBody(body, ContentType.APPLICATION_JSON);
+            headers.forEach((name, values) -> values.forEach(value -> requestBuilder.addHeader(name, value)));
+            request = requestBuilder.build();
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("API call failed: " + endpoint, e));
+        }
+        request.setConfig(createRequestConfig(timeouts, callDeadline));
+
+        CompletableFuture<ApiResult> future = new CompletableFuture<>();
+        event.begin();
+        Future<SimpleHttpResponse> exchange = httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                event.status = response.getCode();
+                event.responseBytes = response.getBodyBytes() != null ? response.getBodyBytes().length : 0;
+                try {
+                    future.complete(readApiResult(endpoint, response, dataReader));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        caller.whenComplete((ignored, e) -> {
+            if (caller.isCancelled()) {
+                exchange.cancel(true);
             }
+        });
 
+        Duration remaining = callDeadline.remaining();
+        if (remaining != null) {
+            future.orTimeout(remaining.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return future.handle((result, e) -> {
+            event.commit();
+            if (e == null) {
+                return result;
+            }
+            exchange.cancel(true);
+            Throwable cause = unwrap(e);
+            if (cause instanceof TimeoutException || callDeadline.isExpired()) {
+                log.error("API call exceeded its deadline: {}", endpoint, cause);
+                throw new DeadlineExceededException("API call exceeded its deadline: " + endpoint, cause);
+            }
+            logFailure(endpoint, cause);
+            throw new RuntimeException("API call failed: " + endpoint, cause);
+        });
+    }
+
+    private ApiResult readApiResult(String endpoint, SimpleHttpResponse response, ApiResultReader.DataReader<?> dataReader) throws Exception {
+        byte[] body = response.getBodyBytes();
+        if (response.getCode() >= 400) {
+            throw new RestClientResponseException("API call returned HTTP " + response.getCode() + ": " + endpoint,
+                    HttpStatusCode.valueOf(response.getCode()), "", null, body, StandardCharsets.UTF_8);
+        }
+        if (body == null || body.length == 0) {
+            log.warn("API call returned empty response: {}", endpoint);
+            return null;
+        }
+
+        ApiResult result = ApiResultReader.read(objectMapper, body, dataReader);
+        if (log.isDebugEnabled()) {
             log.debug("API call successful: {}, response: {}", endpoint, result);
-            return result;
-        } catch (Exception e) {
-            log.error("API call failed: {}", endpoint, e);
-            throw new RuntimeException("API call failed: " + endpoint, e);
         }
+        return result;
+    }
+
+    /**
+     * @return Circuit breaker of the endpoint, or null if circuit breaking is disabled
+     */
+    private CircuitBreaker circuitBreakerFor(String endpoint) {
+        PawsqlClientProperties.CircuitBreaker settings = clientProperties.getCircuitBreaker();
+        if (!settings.isEnabled()) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(endpointName(endpoint), key -> {
+            CircuitBreaker circuitBreaker = new CircuitBreaker(key, settings.getWindowSize(), settings.getMinimumCalls(),
+                    settings.getFailureRateThreshold(), settings.getOpenDuration(), settings.getHalfOpenProbes(), this::onCircuitStateChange);
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                Gauge.builder("pawsql.client.circuit.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                        .description("1 for the current circuit breaker state of a PawSQL API endpoint, 0 otherwise")
+                        .tag("endpoint", key)
+                        .tag("state", state.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry);
+            }
+            return circuitBreaker;
+        });
+    }
+
+    private void onCircuitStateChange(String endpoint, CircuitBreaker.State from, CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN) {
+            log.warn("Circuit breaker of PawSQL API endpoint {} opened (was {})", endpoint, from);
+        } else {
+            log.info("Circuit breaker of PawSQL API endpoint {} changed from {} to {}", endpoint, from, to);
+        }
+        meterRegistry.counter("pawsql.client.circuit.transitions", "endpoint", endpoint,
+                "from", from.name().toLowerCase(Locale.ROOT), "to", to.name().toLowerCase(Locale.ROOT)).increment();
+    }
+
+    /**
+     * Fail fast when the call has no time left or the endpoint's circuit is open
+     */
+    private void acquirePermission(String endpoint, CircuitBreaker circuitBreaker, Deadline callDeadline) {
+        if (callDeadline.isExpired()) {
+            log.warn("Deadline exceeded before API call: {}", endpoint);
+            throw new DeadlineExceededException("Deadline exceeded before API call: " + endpoint);
+        }
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            meterRegistry.counter("pawsql.client.circuit.rejected", "endpoint", circuitBreaker.getName()).increment();
+            throw new CircuitOpenException(endpoint, circuitBreaker.getRetryAfter());
+        }
+    }
+
+    /**
+     * Wait for a rate limit permit and then a free slot of the endpoint, for no longer than the call's deadline
+     *
+     * @return Slot of the call, null if concurrency is not limited
+     */
+    private CompletableFuture<Bulkhead.Permit> admit(String endpoint, Deadline callDeadline) {
+        CompletableFuture<Void> rateLimited = CompletableFuture.completedFuture(null);
+        if (rateLimiter != null) {
+            Duration wait = rateLimiter.reserve(callDeadline.remaining());
+            if (wait == null) {
+                meterRegistry.counter("pawsql.client.throttled", "endpoint", endpointName(endpoint), "reason", "rate_limit").increment();
+                log.warn("Rate limit of PawSQL API calls reached, rejecting call: {}", endpoint);
+                return CompletableFuture.failedFuture(new ThrottledException(
+                        "Rate limit of PawSQL API calls reached, no permit available within the deadline: " + endpoint));
+            }
+            if (!wait.isZero()) {
+                log.debug("Rate limited API call delayed by {} ms: {}", wait.toMillis(), endpoint);
+                rateLimited = CompletableFuture.runAsync(() -> {
+                }, CompletableFuture.delayedExecutor(wait.toNanos(), TimeUnit.NANOSECONDS));
+            }
+        }
+
+        Bulkhead bulkhead = bulkheadFor(endpoint);
+        if (bulkhead == null) {
+            return rateLimited.thenApply(ignored -> null);
+        }
+        return rateLimited
+                .thenCompose(ignored -> bulkhead.acquire(callDeadline.remaining()))
+                .whenComplete((permit, e) -> {
+                    if (e != null) {
+                        meterRegistry.counter("pawsql.client.throttled", "endpoint", bulkhead.getName(), "reason", "bulkhead").increment();
+                        log.warn("Concurrency limit of PawSQL API endpoint reached, rejecting call: {}", endpoint);
+                    }
+                });
+    }
+
+    private static void release(Bulkhead.Permit permit) {
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    /**
+     * @return Concurrency limit of the endpoint, or null if concurrency is not limited
+     */
+    private Bulkhead bulkheadFor(String endpoint) {
+        if (!clientProperties.getBulkhead().isEnabled()) {
+            return null;
+        }
+        return bulkheads.computeIfAbsent(endpointName(endpoint), name -> {
+            Bulkhead bulkhead = new Bulkhead(name, clientProperties.maxConcurrentCallsFor(endpoint), clientProperties.getBulkhead().getMaxQueue());
+            if (clientProperties.isAdaptiveLimitOf(endpoint)) {
+                PawsqlClientProperties.AdaptiveLimit settings = clientProperties.getAdaptiveLimit();
+                adaptiveLimits.put(name, new AdaptiveConcurrencyLimit(bulkhead, settings.getMinLimit(), settings.getMaxLimit(),
+                        settings.getBackoffRatio(), settings.getLatencyTolerance(), settings.getSmoothing()));
+            }
+            Gauge.builder("pawsql.client.bulkhead.active", bulkhead, Bulkhead::getInFlight)
+                    .description("Calls of a PawSQL API endpoint in flight")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            Gauge.builder("pawsql.client.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .description("Calls of a PawSQL API endpoint waiting for a free slot")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            Gauge.builder("pawsql.client.bulkhead.limit", bulkhead, Bulkhead::getLimit)
+                    .description("Maximum number of calls of a PawSQL API endpoint in flight")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            return bulkhead;
+        });
+    }
+
+    /**
+     * Feed the latency of a completed call to the endpoint's adaptive concurrency limit, if it has one
+     */
+    private void recordLatency(String endpoint, long startNanos, Throwable failure) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        Timer.builder("pawsql.client.requests")
+                .description("PawSQL API call attempts")
+                .tag("endpoint", endpointName(endpoint))
+                .tag("outcome", outcomeOf(failure))
+                .tag("status", statusOf(failure))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+
+        AdaptiveConcurrencyLimit adaptiveLimit = adaptiveLimits.get(endpointName(endpoint));
+        if (adaptiveLimit != null) {
+            adaptiveLimit.onSample(startNanos, latencyNanos, failure != null && isBackendFailure(failure));
+        }
+    }
+
+    private static String outcomeOf(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        for (Throwable cause = failure; cause != null && cause.getCause() != cause; cause = cause.getCause()) {
+            if (cause instanceof RestClientResponseException responseException) {
+                return responseException.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+            }
+            if (cause instanceof DeadlineExceededException || cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return "timeout";
+            }
+            if (cause instanceof IOException) {
+                return "io_error";
+            }
+        }
+        return "error";
+    }
+
+    /**
+     * @return HTTP status of a failed call, "2xx" for a successful one, "none" when there was no response
+     */
+    private static String statusOf(Throwable failure) {
+        if (failure == null) {
+            return "2xx";
+        }
+        for (Throwable cause = failure; cause != null && cause.getCause() != cause; cause = cause.getCause()) {
+            if (cause instanceof RestClientResponseException responseException) {
+                return String.valueOf(responseException.getStatusCode().value());
+            }
+        }
+        return "none";
+    }
+
+    private static String endpointName(String endpoint) {
+        return endpoint.startsWith("/") ? endpoint.substring(1) : endpoint;
+    }
+
+    private static void logFailure(String endpoint, Throwable cause) {
+        if (cause instanceof RestClientResponseException responseException && responseException.getStatusCode().value() == 429) {
+            log.warn("API call throttled by the PawSQL server (HTTP 429): {}", endpoint);
+        } else {
+            log.error("API call failed: {}", endpoint, cause);
+        }
+    }
+
+    private void recordOutcome(CircuitBreaker circuitBreaker, Throwable failure) {
+        if (circuitBreaker == null) {
+            return;
+        }
+        if (failure == null) {
+            circuitBreaker.onSuccess();
+        } else if (isBackendFailure(failure)) {
+            circuitBreaker.onFailure();
+        } else {
+            // e.g. a 4xx response: the server is answering, the request was wrong
+            circuitBreaker.onIgnored();
+        }
+    }
+
+    /**
+     * Failures that say the PawSQL server is unhealthy: timeouts, I/O errors, 5xx and other retried statuses
+     */
+    private boolean isBackendFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException || cause instanceof TimeoutException || cause instanceof IOException) {
+                return true;
+            }
+            if (cause instanceof RestClientResponseException responseException) {
+                int status = responseException.getStatusCode().value();
+                return status >= 500 || clientProperties.getRetry().getRetryStatuses().contains(status);
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Headers sent with every attempt of one call; a call that is not idempotent carries an idempotency key,
+     * so the server can recognize a retried attempt
+     */
+    private HttpHeaders createHeaders(PawsqlClientProperties.EndpointRetry retry) {
+        HttpHeaders headers = new HttpHeaders();
+        String idempotencyKeyHeader = idempotencyKeyHeader();
+        if (!retry.idempotent() && !idempotencyKeyHeader.isEmpty()) {
+            headers.set(idempotencyKeyHeader, UUID.randomUUID().toString());
+        }
+        return headers;
+    }
+
+    private String idempotencyKeyHeader() {
+        String header = clientProperties.getRetry().getIdempotencyKeyHeader();
+        return header != null ? header.trim() : "";
+    }
+
+    /**
+     * Decide whether a failed attempt is retried
+     *
+     * @return Delay before the next attempt, or null if the failure is final
+     */
+    private Duration retryBackoff(String endpoint, PawsqlClientProperties.EndpointRetry retry, HttpHeaders headers,
+                                  int attempt, Throwable failure, Deadline callDeadline) {
+        if (attempt >= retry.maxAttempts() || !isRetryable(failure)) {
+            return null;
+        }
+        if (!retry.idempotent() && (!headers.containsKey(idempotencyKeyHeader()) || !failedBeforeProcessing(failure))) {
+            return null;
+        }
+
+        PawsqlClientProperties.Retry settings = clientProperties.getRetry();
+        Duration backoff = new Backoff(settings.getInitialBackoff(), settings.getMaxBackoff(), settings.getMultiplier(), settings.getJitter())
+                .delay(attempt - 1);
+        Duration remaining = callDeadline.remaining();
+        if (remaining != null && remaining.compareTo(backoff) <= 0) {
+            return null;
+        }
+        if (!retryBudget.tryAcquire()) {
+            log.warn("Retry budget exhausted, not retrying API call: {}", endpoint);
+            return null;
+        }
+        log.warn("API call failed, retrying in {} ms (attempt {} of {}): {}", backoff.toMillis(), attempt + 1, retry.maxAttempts(), endpoint);
+        return backoff;
+    }
+
+    /**
+     * Transient failures are HTTP statuses listed in the retry settings and I/O errors; a call that ran out of time is never retried
+     */
+    private boolean isRetryable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException || cause instanceof TimeoutException) {
+                return false;
+            }
+            if (cause instanceof RestClientResponseException responseException) {
+                return clientProperties.getRetry().getRetryStatuses().contains(responseException.getStatusCode().value());
+            }
+            if (cause instanceof IOException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a failed attempt cannot have created anything on the server: the connection was never established,
+     * or the server answered with an error status. After a read timeout or a connection lost mid-exchange the
+     * server may have acted on the request, so retrying a non-idempotent call could create a duplicate.
+     */
+    private static boolean failedBeforeProcessing(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientResponseException
+                    || cause instanceof ConnectException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static RequestConfig createRequestConfig(PawsqlClientProperties.EndpointTimeouts timeouts, Deadline deadline) {
+        Duration connectTimeout = deadline.cap(timeouts.connectTimeout());
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(toTimeout(connectTimeout))
+                .setConnectTimeout(toTimeout(connectTimeout))
+                .setResponseTimeout(toTimeout(deadline.cap(timeouts.readTimeout())))
+                .build();
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        // A zero timeout means "infinite" to HttpClient, so never go below one millisecond
+        return Timeout.ofMilliseconds(Math.max(1L, duration.toMillis()));
     }
 
     public String getFrontendUrl() {
@@ -109,12 +697,19 @@ public class PawsqlApiService {
         return apiBaseUrl;
     }
 
+    /**
+     * @return Email of the PawSQL account the API key belongs to
+     */
+    public String getAccount() {
+        return account;
+    }
+
     public boolean validateApiKey() {
         try {
             Map<String, String> requestBody = new HashMap<>();
             requestBody.put("userKey", apiKey);
 
-            ApiResult response = executeApiCall("/validateUserKey", requestBody);
+            ApiResult response = executeApiCall("/validateUserKey", requestBody, ApiResultReader.UNTYPED);
             if (response != null && response.data() != null) {
                 boolean isValid = (boolean) response.data();
                 log.info("API key validation result: {}", isValid);
@@ -127,74 +722,89 @@ public class PawsqlApiService {
         }
     }
 
+    /**
+     * Blocking form of {@link #getAnalysisSummaryAsync}, bounded only by the endpoint's own timeouts
+     */
     public ApiResult getAnalysisSummary(String analysisId) {
+        return getAnalysisSummaryAsync(analysisId, Deadline.none()).join();
+    }
+
+    public CompletableFuture<ApiResult> getAnalysisSummaryAsync(String analysisId, Deadline deadline) {
         Map<String, String> requestBody = createAuthenticatedRequest();
         requestBody.put("analysisId", analysisId);
-        log.info("Getting SQL analysis results: {}", analysisId);
-        return executeApiCall("/getAnalysisSummary", requestBody);
+        log.info("Getting SQL analysis results asynchronously: {}", analysisId);
+        return executeApiCallAsync("/getAnalysisSummary", requestBody, deadline, AnalysisSummary::read);
     }
 
     public ApiResult getStatementDetails(String analysisStmtId) {
+        return getStatementDetailsAsync(analysisStmtId, Deadline.none()).join();
+    }
+
+    public CompletableFuture<ApiResult> getStatementDetailsAsync(String analysisStmtId, Deadline deadline) {
+        return getStatementDetailsAsync(analysisStmtId, 0, deadline);
+    }
+
+    /**
+     * @param maxDetailLength Maximum number of characters of detailMarkdown to keep, 0 for no limit
+     */
+    public CompletableFuture<ApiResult> getStatementDetailsAsync(String analysisStmtId, int maxDetailLength, Deadline deadline) {
         Map<String, String> requestBody = createAuthenticatedRequest();
         requestBody.put("analysisStmtId", analysisStmtId);
-        log.info("Getting SQL statement optimization details: {}", analysisStmtId);
-        return executeApiCall("/getStatementDetails", requestBody);
+        log.info("Getting SQL statement optimization details asynchronously: {}", analysisStmtId);
+        return executeApiCallAsync("/getStatementDetails", requestBody, deadline, StatementDetails.reader(maxDetailLength));
     }
 
     public String createWorkspace(DatabaseInfo dbInfo) {
-        try {
-            log.info("Creating workspace: {}", dbInfo);
-            Map<String, String> requestBody = createAuthenticatedRequest();
-            requestBody.put("mode", "offline");
-            requestBody.put("dbType", dbInfo.getDbType());
-            requestBody.put("ddlText", dbInfo.getDdlText());
+        return createWorkspaceAsync(dbInfo, Deadline.none()).join();
+    }
 
-            ApiResult response = executeApiCall("/createWorkspace", requestBody);
-            if (response != null && response.data() != null) {
-                Map<String, Object> data = (Map<String, Object>) response.data();
-                String workspaceId = (String) data.get("workspaceId");
-                log.info("Workspace created successfully: {}", workspaceId);
-                return workspaceId;
-            }
-            throw new RuntimeException("Failed to create workspace: Empty response");
-        } catch (Exception e) {
-            log.error("Failed to create workspace", e);
-            throw new RuntimeException("Failed to create workspace: " + e.getMessage(), e);
-        }
+    public CompletableFuture<String> createWorkspaceAsync(DatabaseInfo dbInfo, Deadline deadline) {
+        log.info("Creating workspace asynchronously: {}", dbInfo);
+        return executeApiCallAsync("/createWorkspace", createWorkspaceRequest(dbInfo), deadline, ApiResultReader.UNTYPED)
+                .thenApply(response -> {
+                    if (response != null && response.data() != null) {
+                        Map<String, Object> data = (Map<String, Object>) response.data();
+                        String workspaceId = (String) data.get("workspaceId");
+                        log.info("Workspace created successfully: {}", workspaceId);
+                        meterRegistry.counter("pawsql.workspaces.created").increment();
+                        eventPublisher.publishEvent(new WorkspaceCreatedEvent(workspaceId, dbInfo));
+                        return workspaceId;
+                    }
+                    throw new RuntimeException("Failed to create workspace: Empty response");
+                });
     }
 
     public ApiResult createAnalysis(String sql, String workspaceId, String dbType, boolean validateFlag) {
-        try {
-            log.info("Sending SQL optimization request: {}, workspaceId: {}", sql, workspaceId);
-            Map<String, String> requestBody = createAuthenticatedRequest();
-            requestBody.put("workload", sql);
-            requestBody.put("queryMode", "plain_sql");
-            requestBody.put("dbType", dbType);
-
-            if (workspaceId != null) {
-                requestBody.put("workspace", workspaceId);
-                requestBody.put("validateFlag", String.valueOf(validateFlag));
-            }
+        return createAnalysisAsync(sql, workspaceId, dbType, validateFlag, Deadline.none()).join();
+    }
 
-            return executeApiCall("/createAnalysis", requestBody);
-        } catch (Exception e) {
-            log.error("SQL optimization request failed", e);
-            throw new RuntimeException("SQL optimization service call failed", e);
-        }
+    public CompletableFuture<ApiResult> createAnalysisAsync(String sql, String workspaceId, String dbType, boolean validateFlag, Deadline deadline) {
+        log.info("Sending SQL optimization request asynchronously: {}, workspaceId: {}", sql, workspaceId);
+        return executeApiCallAsync("/createAnalysis", createAnalysisRequest(sql, workspaceId, dbType, validateFlag), deadline, ApiResultReader.UNTYPED);
     }
 
     public ApiResult listWorkspaces(int pageNumber, int pageSize) {
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("userKey", apiKey);
-        requestBody.put("pageNumber", pageNumber);
-        requestBody.put("pageSize", pageSize);
-        log.info("Querying workspace list: pageNumber={}, pageSize={}", pageNumber, pageSize);
-        return executeApiCall("/listWorkspaces", requestBody);
+        return listWorkspacesAsync(pageNumber, pageSize, Deadline.none()).join();
+    }
+
+    public CompletableFuture<ApiResult> listWorkspacesAsync(int pageNumber, int pageSize, Deadline deadline) {
+        log.info("Querying workspace list asynchronously: pageNumber={}, pageSize={}", pageNumber, pageSize);
+        return executeApiCallAsync("/listWorkspaces", createListWorkspacesRequest(pageNumber, pageSize), deadline, WorkspacePage.reader(pageNumber, pageSize));
+    }
+
+    private Map<String, String> createWorkspaceRequest(DatabaseInfo dbInfo) {
+        return PawsqlRequests.createWorkspace(apiKey, dbInfo);
+    }
+
+    private Map<String, String> createAnalysisRequest(String sql, String workspaceId, String dbType, boolean validateFlag) {
+        return PawsqlRequests.createAnalysis(apiKey, sql, workspaceId, dbType, validateFlag);
+    }
+
+    private Map<String, Object> createListWorkspacesRequest(int pageNumber, int pageSize) {
+        return PawsqlRequests.listWorkspaces(apiKey, pageNumber, pageSize);
     }
 
     private Map<String, String> createAuthenticatedRequest() {
-        Map<String, String> requestBody = new HashMap<>();
-            requestBody.put("userKey", apiKey);
-        return requestBody;
+        return PawsqlRequests.authenticated(apiKey);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.model.DatabaseInfo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request bodies of the PawSQL API calls
+ */
+final class PawsqlRequests {
+
+    private PawsqlRequests() {
+    }
+
+    /**
+     * @return Mutable body carrying only the API key, for the caller to add the call's own fields to
+     */
+    static Map<String, String> authenticated(String apiKey) {
+        Map<String, String> requestBody = new HashMap<>();
+        requestBody.put("userKey", apiKey);
+        return requestBody;
+    }
+
+    static Map<String, String> createWorkspace(String apiKey, DatabaseInfo dbInfo) {
+        Map<String, String> requestBody = authenticated(apiKey);
+        requestBody.put("mode", "offline");
+        requestBody.put("dbType", dbInfo.getDbType());
+        requestBody.put("ddlText", dbInfo.getDdlText());
+        return requestBody;
+    }
+
+    static Map<String, String> createAnalysis(String apiKey, String sql, String workspaceId, String dbType, boolean validateFlag) {
+        Map<String, String> requestBody = authenticated(apiKey);
+        requestBody.put("workload", sql);
+        requestBody.put("queryMode", "plain_sql");
+        requestBody.put("dbType", dbType);
+
+        if (workspaceId != null) {
+            requestBody.put("workspace", workspaceId);
+            requestBody.put("validateFlag", String.valueOf(validateFlag));
+        }
+        return requestBody;
+    }
+
+    static Map<String, Object> listWorkspaces(String apiKey, int pageNumber, int pageSize) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("userKey", apiKey);
+        requestBody.put("pageNumber", pageNumber);
+        requestBody.put("pageSize", pageSize);
+        return requestBody;
+    }
+}
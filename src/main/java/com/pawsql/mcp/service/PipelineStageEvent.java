@@ -0,0 +1,85 @@
+package com.pawsql.mcp.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * JDK Flight Recorder event covering one stage of the optimize_sql pipeline
+ * <p>
+ * A stage spans everything it waits for, including retries and polling; the HTTP attempts inside it are
+ * recorded separately as {@link PawsqlApiCallEvent}s. Sizes are only filled in for the stages they apply to.
+ */
+@Name("com.pawsql.mcp.PipelineStage")
+@Label("PawSQL Pipeline Stage")
+@Category({"PawSQL", "optimize_sql"})
+@Description("One stage of an optimize_sql call")
+@StackTrace(false)
+final class PipelineStageEvent extends Event {
+    static final String PREPARE_WORKSPACE = "prepareWorkspace";
+    static final String CREATE_ANALYSIS = "createAnalysis";
+    static final String GET_ANALYSIS_SUMMARY = "getAnalysisSummary";
+    static final String GET_STATEMENT_DETAILS = "getStatementDetails";
+    static final String GENERATE_MARKDOWN_REPORT = "generateMarkdownReport";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Resource ID")
+    @Description("Workspace, analysis or statement the stage worked on")
+    String resourceId;
+
+    @Label("SQL Length")
+    @Description("Characters of DDL or workload SQL sent to PawSQL")
+    long sqlLength;
+
+    @Label("Statement Count")
+    @Description("Statements in the analysis summary")
+    long statementCount;
+
+    @Label("Markdown Length")
+    @Description("Characters of report markdown received or generated")
+    long markdownLength;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    PipelineStageEvent(String stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * Start timing a stage
+     */
+    static PipelineStageEvent start(String stage) {
+        PipelineStageEvent event = new PipelineStageEvent(stage);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event once the stage completes, without changing the future's result or cancellation behaviour
+     *
+     * @param describe Fills in the stage-specific fields from a successful result; only called when the event is recorded
+     * @return The given future
+     */
+    <T> CompletableFuture<T> recordOn(CompletableFuture<T> stageResult, BiConsumer<PipelineStageEvent, T> describe) {
+        stageResult.whenComplete((result, e) -> {
+            end();
+            if (shouldCommit()) {
+                succeeded = e == null;
+                if (e == null && result != null) {
+                    describe.accept(this, result);
+                }
+                commit();
+            }
+        });
+        return stageResult;
+    }
+}
@@ -0,0 +1,67 @@
+package com.pawsql.mcp.service;
+
+/**
+ * Limits retries to a fraction of recent requests, so that retries cannot multiply the load on a struggling server
+ * <p>
+ * Every request deposits {@code ratio} tokens and every retry withdraws one. A small reserve refilled over time
+ * lets a quiet client still retry now and then, and the balance is capped so an idle period cannot bank a retry storm.
+ */
+public class RetryBudget {
+    private final double ratio;
+    private final double reservePerSecond;
+    private final double maxBalance;
+
+    private double balance;
+    private long lastRefillNanos = System.nanoTime();
+    private long granted;
+    private long denied;
+
+    /**
+     * @param ratio               Retries allowed per request
+     * @param minRetriesPerSecond Retries allowed per second regardless of traffic
+     * @param maxBalance          Maximum number of retries that can be saved up
+     */
+    public RetryBudget(double ratio, double minRetriesPerSecond, double maxBalance) {
+        this.ratio = ratio;
+        this.reservePerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+        this.balance = Math.min(maxBalance, minRetriesPerSecond);
+    }
+
+    /**
+     * Record a request, including a first attempt that will not be retried
+     */
+    public synchronized void recordRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * @return Whether a retry may be made now; if so it is withdrawn from the budget
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (balance >= 1) {
+            balance -= 1;
+            granted++;
+            return true;
+        }
+        denied++;
+        return false;
+    }
+
+    public synchronized long getGranted() {
+        return granted;
+    }
+
+    public synchronized long getDenied() {
+        return denied;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        balance = Math.min(maxBalance, balance + elapsedSeconds * reservePerSecond);
+    }
+}
@@ -0,0 +1,73 @@
+package com.pawsql.mcp.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into one upstream call
+ * <p>
+ * The first caller for a key starts the call; callers arriving while it is in flight share its outcome.
+ * Each caller receives its own copy of the future, so cancelling or timing out one waiter does not affect the others.
+ *
+ * @param <K> Key type
+ * @param <V> Result type
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * @param key  Key identifying identical calls
+     * @param call Starts the upstream call; only invoked if no call for the key is in flight
+     * @return Future completed with the shared outcome
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return existing.copy();
+        }
+
+        calls.incrementAndGet();
+        try {
+            call.get().whenComplete((result, e) -> {
+                inFlight.remove(key, promise);
+                if (e != null) {
+                    promise.completeExceptionally(e);
+                } else {
+                    promise.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise.copy();
+    }
+
+    /**
+     * @return Number of upstream calls started
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * @return Number of callers that joined a call already in flight
+     */
+    public long getShared() {
+        return shared.get();
+    }
+
+    /**
+     * @return Number of calls currently in flight
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
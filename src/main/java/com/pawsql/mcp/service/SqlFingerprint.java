@@ -0,0 +1,169 @@
+package com.pawsql.mcp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Literal- and formatting-insensitive fingerprint of a SQL statement
+ * <p>
+ * Normalization removes {@code --} and block comments, plus {@code #} comments on MySQL where {@code #} is not an
+ * operator as it is in PostgreSQL, collapses whitespace, lower-cases keywords and
+ * unquoted identifiers, replaces string and numeric literals with {@code ?} and collapses {@code IN} lists of any
+ * length such as {@code IN (1, 2, 3)} into {@code in(?+)}. Other parenthesized lists such as {@code VALUES} rows
+ * and function arguments keep their arity. Quoted identifiers are kept verbatim because they are case-sensitive.
+ */
+public final class SqlFingerprint {
+
+    private SqlFingerprint() {
+    }
+
+    /**
+     * @param sql    SQL text
+     * @param dbType Database type, which decides whether {@code #} starts a comment
+     * @return Hex encoded SHA-256 of the normalized SQL
+     */
+    public static String of(String sql, String dbType) {
+        return sha256(normalize(sql, dbType));
+    }
+
+    /**
+     * Fingerprint of a schema: database type plus the canonical form of its DDL
+     *
+     * @param dbType  Database type
+     * @param ddlText DDL statements
+     * @return Hex encoded SHA-256, literals included
+     */
+    public static String ofSchema(String dbType, String ddlText) {
+        return sha256(dbType.toLowerCase(Locale.ROOT) + "\n" + canonicalize(ddlText, dbType));
+    }
+
+    /**
+     * @param sql    SQL text
+     * @param dbType Database type, which decides whether {@code #} starts a comment
+     * @return Normalized SQL text
+     */
+    public static String normalize(String sql, String dbType) {
+        return normalize(sql, hasHashComments(dbType), true);
+    }
+
+    /**
+     * Like {@link #normalize(String, String)} but keeps literals, for text where they are significant such as DDL
+     *
+     * @param sql    SQL text
+     * @param dbType Database type, which decides whether {@code #} starts a comment
+     * @return SQL text without comments, redundant whitespace and keyword case differences
+     */
+    public static String canonicalize(String sql, String dbType) {
+        return normalize(sql, hasHashComments(dbType), false);
+    }
+
+    private static boolean hasHashComments(String dbType) {
+        return "mysql".equalsIgnoreCase(dbType);
+    }
+
+    private static String normalize(String sql, boolean hashComments, boolean replaceLiterals) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        boolean pendingSpace = false;
+
+        while (i < length) {
+            char c = sql.charAt(i);
+            char next = i + 1 < length ? sql.charAt(i + 1) : '\0';
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+            if (c == '-' && next == '-' || c == '#' && hashComments) {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                pendingSpace = true;
+                continue;
+            }
+
+            if (pendingSpace && out.length() > 0 && isWordChar(out.charAt(out.length() - 1)) && isWordChar(c)) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+
+            if (c == '\'') {
+                int end = skipStringLiteral(sql, i);
+                if (replaceLiterals) {
+                    out.append('?');
+                } else {
+                    out.append(sql, i, end);
+                }
+                i = end;
+            } else if (c == '"' || c == '`') {
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                if (replaceLiterals) {
+                    out.append('?');
+                } else {
+                    out.append(sql, start, i);
+                }
+            } else if (Character.isLetter(c) || c == '_' || c == '$') {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$')) {
+                    out.append(Character.toLowerCase(sql.charAt(i)));
+                    i++;
+                }
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+
+        return replaceLiterals ? out.toString().replaceAll("\\bin\\s*\\(\\?(,\\?)*\\)", "in(?+)") : out.toString();
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static int skipStringLiteral(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '?' || c == '"' || c == '`' || c == '\'';
+    }
+}
@@ -1,40 +1,90 @@
 package com.pawsql.mcp.service;
 
 import ch.qos.logback.core.util.StringUtil;
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
 import com.pawsql.mcp.enums.DefinitionEnum;
+import com.pawsql.mcp.model.AnalysisSummary;
 import com.pawsql.mcp.model.ApiResult;
 import com.pawsql.mcp.model.DatabaseInfo;
+import com.pawsql.mcp.model.StatementDetails;
+import com.pawsql.mcp.model.StatementSummary;
+import com.pawsql.mcp.model.Workspace;
+import com.pawsql.mcp.model.WorkspacePage;
 import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Service
 public class SqlOptimizeService {
     private static final Logger log = LoggerFactory.getLogger(SqlOptimizeService.class);
+    private static final int WORKSPACE_LIST_SIZE = 10;
     private final PawsqlApiService apiService;
-
-    public SqlOptimizeService(PawsqlApiService apiService) {
+    private final PawsqlOptimizeProperties optimizeProperties;
+    private final OptimizationResultCache resultCache;
+    private final WorkspaceDirectory workspaceDirectory;
+    private final WorkspaceReuseRegistry workspaceReuseRegistry;
+    private final AnalysisPoller analysisPoller;
+    private final MeterRegistry meterRegistry;
+    private final MarkdownFormatter markdown;
+    private final Map<String, AnalysisJob> analysisJobs = new ConcurrentHashMap<>();
+    private final SingleFlight<String, String> workspaceCreations = new SingleFlight<>();
+    private final SingleFlight<OptimizationResultCache.Key, ApiResult> optimizationFlights = new SingleFlight<>();
+
+    public SqlOptimizeService(PawsqlApiService apiService, PawsqlOptimizeProperties optimizeProperties,
+                              OptimizationResultCache resultCache, WorkspaceDirectory workspaceDirectory,
+                              WorkspaceReuseRegistry workspaceReuseRegistry, AnalysisPoller analysisPoller,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
         this.apiService = apiService;
+        this.optimizeProperties = optimizeProperties;
+        this.resultCache = resultCache;
+        this.workspaceDirectory = workspaceDirectory;
+        this.workspaceReuseRegistry = workspaceReuseRegistry;
+        this.analysisPoller = analysisPoller;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.markdown = new MarkdownFormatter(apiService.getFrontendUrl());
     }
 
     @Tool(
             name = "list_workspaces",
-            description = "List current workspaces and return their basic information in a markdown table."
+            description = "List current workspaces and return their basic information in a markdown table. Results are paged; pass the returned nextCursor to get the next page."
     )
-    public ApiResult listWorkspaces() {
+    public ApiResult listWorkspaces(
+            @Schema(description = "Cursor returned as nextCursor by a previous list_workspaces call, null for the first page", required = false)
+            @ToolParam(required = false)
+            String cursor
+    ) {
         try {
-            String workspaceListMarkdown = generateWorkspaceListMarkdown();
-            return workspaceListMarkdown != null ?
-                    new ApiResult(200, "Successfully retrieved workspace list", workspaceListMarkdown) :
-                    new ApiResult(200, "No workspaces available", null);
+            WorkspaceCursor position = StringUtils.isBlank(cursor) ? WorkspaceCursor.first(WORKSPACE_LIST_SIZE) : WorkspaceCursor.decode(cursor);
+            WorkspacePage page = workspaceDirectory.page(position.pageNumber(), position.pageSize(), Deadline.none());
+            if (page.records().isEmpty()) {
+                return new ApiResult(200, "No workspaces available", null);
+            }
+
+            Map<String, Object> workspaceList = new LinkedHashMap<>();
+            workspaceList.put("workspaceList", MarkdownFormatter.workspaceTable(page.records()));
+            workspaceList.put("nextCursor", page.hasNext() ? position.next().encode() : null);
+            return new ApiResult(200, "Successfully retrieved workspace list", workspaceList);
+        } catch (IllegalArgumentException e) {
+            return new ApiResult(400, "Invalid workspace list cursor: " + e.getMessage(), null);
         } catch (Exception e) {
             log.error("Failed to retrieve workspace list", e);
             return new ApiResult(500, "Failed to retrieve workspace list: " + e.getMessage(), null);
@@ -54,14 +104,7 @@ public class SqlOptimizeService {
             String workspaceId
     ) {
         try {
-            ApiResult workspaces = apiService.listWorkspaces(1, 100);
-            if (workspaces == null || workspaces.data() == null) {
-                return new ApiResult(404, "No workspaces found", null);
-            }
-
-            Map<String, Object> workspaceData = (Map<String, Object>) workspaces.data();
-            List<Map<String, Object>> records = (List<Map<String, Object>>) workspaceData.get("records");
-            if (records == null || records.isEmpty()) {
+            if (workspaceDirectory.list().isEmpty()) {
                 return new ApiResult(404, "No workspaces found", null);
             }
 
@@ -69,19 +112,18 @@ public class SqlOptimizeService {
                 return new ApiResult(400, "Workspace name and ID cannot both be empty", null);
             }
 
-            for (Map<String, Object> workspace : records) {
-                String name = (String) workspace.get("workspaceName");
-                String id = String.valueOf(workspace.get("workspaceId"));
-                if ((workspaceName != null && workspaceName.equals(name)) ||
-                        (workspaceId != null && workspaceId.equals(id))) {
-                    Map<String, Object> workspaceInfo = new LinkedHashMap<>();
-                    workspaceInfo.put("workspaceId", workspace.get("workspaceId"));
-                    workspaceInfo.put("workspaceName", workspace.get("workspaceName"));
-                    workspaceInfo.put("dbType", workspace.get("dbType"));
-                    workspaceInfo.put("canValidate", workspace.get("dbHost") != null);
-                    workspaceInfo.put("status", workspace.get("status"));
-                    return new ApiResult(200, "Workspace found successfully", workspaceInfo);
-                }
+            Workspace workspace = workspaceName != null ? workspaceDirectory.findByName(workspaceName) : null;
+            if (workspace == null && workspaceId != null) {
+                workspace = workspaceDirectory.findById(workspaceId);
+            }
+            if (workspace != null) {
+                Map<String, Object> workspaceInfo = new LinkedHashMap<>();
+                workspaceInfo.put("workspaceId", workspace.workspaceId());
+                workspaceInfo.put("workspaceName", workspace.workspaceName());
+                workspaceInfo.put("dbType", workspace.dbType());
+                workspaceInfo.put("canValidate", workspace.canValidate());
+                workspaceInfo.put("status", workspace.status());
+                return new ApiResult(200, "Workspace found successfully", workspaceInfo);
             }
 
             String errorMsg = workspaceName != null ?
@@ -94,52 +136,147 @@ public class SqlOptimizeService {
         }
     }
 
-    private String generateWorkspaceListMarkdown() {
-        try {
-            ApiResult workspaces = apiService.listWorkspaces(1, 10);
-            if (workspaces == null || workspaces.data() == null) return null;
+    @Tool(
+            name = "optimize_sql",
+            description = """
+                    Optimize SQL and return the optimization results in markdown format
+                    """
+    )
+    public ApiResult optimizeSql(
+            @Schema(description = "SQL query to be optimized", required = false)
+            @ToolParam(required = false)
+            String sql,
+
+            @Schema(description = "Database type, can be null if not provided by user", required = false)
+            @ToolParam(required = false)
+            String dbType,
+
+            @Schema(description = "Do not provide default values if not provided by user. Set to null if user doesn't provide DDL or database connection info. Note that database type is required when this is not null", required = false)
+            @ToolParam(required = false)
+            DatabaseInfo dbInfo,
+
+            @Schema(description = "Whether to use workspace for optimization, based on dbInfo. True if user provides DDL info or database connection info, false otherwise", required = false)
+            boolean useWorkspace,
+
+            @Schema(description = "Existing workspace ID, true if provided by user, false otherwise", required = false)
+            @ToolParam(required = false)
+            String workspaceId,
+
+            @Schema(description = "Whether to validate optimization results. Should be false unless user explicitly requests validation. Validation requires workspace with database connection info", required = false)
+            boolean validateFlag
+    ) {
+        ApiResult validationResult = validateOptimizeParams(sql, dbType);
+        if (validationResult != null) return validationResult;
 
-            Map<String, Object> workspaceData = (Map<String, Object>) workspaces.data();
-            List<Map<String, Object>> records = (List<Map<String, Object>>) workspaceData.get("records");
-            if (records == null || records.isEmpty()) return null;
+        Deadline deadline = Deadline.after(optimizeProperties.getDeadline());
+        log.info("Starting SQL optimization, database type: {}, using workspace: {}", dbType, useWorkspace);
+        CompletableFuture<ApiResult> optimization = optimizeSqlAsync(sql, dbType, dbInfo, useWorkspace, workspaceId, validateFlag, deadline);
+        Duration remaining = deadline.remaining();
+        if (remaining != null) {
+            // Bounds callers that joined an optimization started by another caller with a later deadline
+            optimization = optimization.orTimeout(remaining.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return optimization
+                .exceptionally(this::toOptimizationError)
+                .join();
+    }
 
-            return buildWorkspaceMarkdownTable(records);
+    /**
+     * Compose the workspace, analysis, summary and details calls without blocking a thread between them
+     */
+    private CompletableFuture<ApiResult> optimizeSqlAsync(String sql, String dbType, DatabaseInfo dbInfo, boolean useWorkspace,
+                                                          String workspaceId, boolean validateFlag, Deadline deadline) {
+        try {
+            return prepareWorkspace(workspaceId, useWorkspace, dbInfo, deadline)
+                    .thenCompose(finalWorkspaceId -> processOptimizationCached(sql, finalWorkspaceId, dbType, validateFlag, deadline));
         } catch (Exception e) {
-            log.error("Failed to generate workspace list markdown", e);
-            return null;
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    private String buildWorkspaceMarkdownTable(List<Map<String, Object>> records) {
-        StringBuilder markdownBuilder = new StringBuilder()
-                .append("\n## Workspace List\n")
-                .append("| Workspace Name | Workspace ID | Database Type | Can Validate Optimization | Status |\n")
-                .append("|---------------|--------------|--------------|------------------------|--------|\n");
+    /**
+     * Serve the report from {@link OptimizationResultCache} when the same normalized SQL was already optimized
+     * with the same database type, workspace and validation flag, and let concurrent identical calls share
+     * one upstream analysis
+     */
+    private CompletableFuture<ApiResult> processOptimizationCached(String sql, String workspaceId, String dbType, boolean validateFlag, Deadline deadline) {
+        OptimizationResultCache.Key cacheKey = OptimizationResultCache.keyOf(sql, dbType, workspaceId, validateFlag);
+        ApiResult cached = resultCache.get(cacheKey);
+        if (cached != null) {
+            log.info("SQL optimization report served from cache, fingerprint: {}", cacheKey.fingerprint());
+            return CompletableFuture.completedFuture(cached);
+        }
 
-        for (Map<String, Object> workspace : records) {
-            String tempDbType = workspace.get("dbType") != null ? workspace.get("dbType").toString() : "-";
-            boolean canValidate = workspace.get("dbHost") != null;
-            String validationStatus = canValidate ? "Yes" : "No";
-            String status = workspace.get("status") != null ? workspace.get("status").toString() : "-";
+        if (!optimizeProperties.isSingleFlight()) {
+            return processOptimizationAndCache(cacheKey, sql, workspaceId, dbType, validateFlag, deadline);
+        }
+        return optimizationFlights.execute(cacheKey,
+                () -> processOptimizationAndCache(cacheKey, sql, workspaceId, dbType, validateFlag, deadline));
+    }
+
+    private CompletableFuture<ApiResult> processOptimizationAndCache(OptimizationResultCache.Key cacheKey, String sql, String workspaceId,
+                                                                     String dbType, boolean validateFlag, Deadline deadline) {
+        return processOptimization(sql, workspaceId, dbType, validateFlag, deadline)
+                .thenApply(result -> {
+                    if (isOptimizationReport(result)) {
+                        resultCache.put(cacheKey, result);
+                    }
+                    log.debug("SQL optimization cache stats: {}, shared in-flight calls: {}",
+                            resultCache.getStats(), optimizationFlights.getShared());
+                    return result;
+                })
+                .exceptionallyCompose(e -> serveStaleWhenUnavailable(cacheKey, e));
+    }
 
-            markdownBuilder.append(String.format("| %s | %s | %s | %s | %s |\n",
-                    workspace.get("workspaceName"),
-                    workspace.get("workspaceId"),
-                    tempDbType,
-                    validationStatus,
-                    status));
+    /**
+     * While PawSQL is unavailable, fall back to an expired report of the same SQL if there is one
+     */
+    private CompletableFuture<ApiResult> serveStaleWhenUnavailable(OptimizationResultCache.Key cacheKey, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof CircuitOpenException) {
+            ApiResult stale = resultCache.getStale(cacheKey);
+            if (stale != null) {
+                log.warn("PawSQL is unavailable, serving stale optimization report, fingerprint: {}", cacheKey.fingerprint());
+                return CompletableFuture.completedFuture(new ApiResult(stale.code(),
+                        "PawSQL server is currently unavailable. This report was generated earlier for the same SQL and may be outdated. " + stale.message(),
+                        stale.data()));
+            }
         }
+        return CompletableFuture.failedFuture(cause);
+    }
 
-        return markdownBuilder.toString();
+    private boolean isOptimizationReport(ApiResult result) {
+        return result != null && result.code() == 200
+                && result.data() instanceof Map<?, ?> parts && parts.containsKey("reportLink");
+    }
+
+    private ApiResult toOptimizationError(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof CircuitOpenException) {
+            log.warn("SQL optimization rejected: {}", cause.getMessage());
+            return new ApiResult(503, "PawSQL server is currently unavailable, please try again later: " + cause.getMessage(), null);
+        }
+        if (cause instanceof ThrottledException) {
+            log.warn("SQL optimization throttled: {}", cause.getMessage());
+            return new ApiResult(429, "Too many concurrent requests to PawSQL, please try again later: " + cause.getMessage(), null);
+        }
+        if (cause instanceof DeadlineExceededException || cause instanceof TimeoutException) {
+            log.error("SQL optimization timed out", cause);
+            return new ApiResult(504, "SQL optimization timed out, please try again later: " + cause.getMessage(), null);
+        }
+        log.error("Error occurred during SQL optimization", cause);
+        return new ApiResult(500, "Error during SQL optimization: " + cause.getMessage(), null);
     }
 
     @Tool(
-            name = "optimize_sql",
+            name = "submit_analysis",
             description = """
-                    Optimize SQL and return the optimization results in markdown format
+                    Submit SQL for optimization and return its analysisId immediately, without waiting for the report.
+                    Use get_analysis_result with the analysisId to get the report. Prefer this over optimize_sql
+                    when many statements are to be optimized independently or validation is requested
                     """
     )
-    public ApiResult optimizeSql(
+    public ApiResult submitAnalysis(
             @Schema(description = "SQL query to be optimized", required = false)
             @ToolParam(required = false)
             String sql,
@@ -164,15 +301,200 @@ public class SqlOptimizeService {
     ) {
         ApiResult validationResult = validateOptimizeParams(sql, dbType);
         if (validationResult != null) return validationResult;
+        if (!hasJobCapacity()) {
+            log.warn("Analysis job table full, rejecting submission");
+            return new ApiResult(429, "Too many analyses are waiting to be collected, call get_analysis_result for earlier submissions or try again later", null);
+        }
 
+        Deadline deadline = Deadline.after(optimizeProperties.getDeadline());
+        log.info("Submitting SQL analysis, database type: {}, using workspace: {}", dbType, useWorkspace);
+        CompletableFuture<ApiResult> submission;
         try {
-            log.info("Starting SQL optimization, database type: {}, using workspace: {}", dbType, useWorkspace);
-            String finalWorkspaceId = prepareWorkspace(workspaceId, useWorkspace, dbInfo);
-            return processOptimization(sql, finalWorkspaceId, dbType, validateFlag);
+            submission = prepareWorkspace(workspaceId, useWorkspace, dbInfo, deadline)
+                    .thenCompose(finalWorkspaceId -> createAnalysis(sql, finalWorkspaceId, dbType, validateFlag, deadline)
+                            .thenApply(analysisId -> analysisId == null ?
+                                    analysisCreationFailed() :
+                                    startJob(analysisId, finalWorkspaceId,
+                                            OptimizationResultCache.keyOf(sql, dbType, finalWorkspaceId, validateFlag))));
         } catch (Exception e) {
-            log.error("Error occurred during SQL optimization", e);
-            return new ApiResult(500, "Error during SQL optimization: " + e.getMessage(), null);
+            submission = CompletableFuture.failedFuture(e);
         }
+        Duration remaining = deadline.remaining();
+        if (remaining != null) {
+            submission = submission.orTimeout(remaining.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return submission
+                .exceptionally(this::toOptimizationError)
+                .join();
+    }
+
+    @Tool(
+            name = "get_analysis_result",
+            description = """
+                    Get the optimization report of an analysis submitted with submit_analysis.
+                    Returns code 202 while the analysis is still running; call again later in that case
+                    """
+    )
+    public ApiResult getAnalysisResult(
+            @Schema(description = "Analysis ID returned by submit_analysis", required = true)
+            String analysisId
+    ) {
+        if (StringUtil.isNullOrEmpty(analysisId)) {
+            return new ApiResult(400, "Analysis ID cannot be empty", null);
+        }
+
+        AnalysisJob job = analysisJobs.get(analysisId);
+        if (job != null) {
+            if (!job.report().isDone()) {
+                return analysisRunning(analysisId);
+            }
+            if (!gaveUpWaiting(job)) {
+                return job.report()
+                        .exceptionally(this::toOptimizationError)
+                        .join();
+            }
+            // The job stopped polling, but PawSQL may have finished the analysis since
+            analysisJobs.remove(analysisId, job);
+        }
+
+        // Not submitted through this server, already purged or no longer polled: ask PawSQL once instead of waiting
+        Deadline deadline = Deadline.after(optimizeProperties.getDeadline());
+        CompletableFuture<ApiResult> result = apiService.getAnalysisSummaryAsync(analysisId, deadline)
+                .thenCompose(summary -> summary != null && !analysisPoller.isFinished(summary) ?
+                        CompletableFuture.completedFuture(analysisRunning(analysisId)) :
+                        processAnalysisResult(summary, null, analysisId, deadline))
+                .thenApply(report -> {
+                    if (isOptimizationReport(report) && hasJobCapacity()) {
+                        analysisJobs.put(analysisId, new AnalysisJob(analysisId, System.nanoTime(), CompletableFuture.completedFuture(report)));
+                    }
+                    return report;
+                });
+        Duration remaining = deadline.remaining();
+        if (remaining != null) {
+            result = result.orTimeout(remaining.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return result
+                .exceptionally(this::toOptimizationError)
+                .join();
+    }
+
+    /**
+     * Register a job that waits for the analysis and builds its report in the background
+     */
+    private ApiResult startJob(String analysisId, String workspaceId, OptimizationResultCache.Key cacheKey) {
+        Map<String, Object> submission = new LinkedHashMap<>();
+        submission.put("analysisId", analysisId);
+        submission.put("workspaceId", workspaceId);
+        if (!hasJobCapacity()) {
+            // Lost the race for the last slot after the analysis was created; PawSQL still has it
+            log.warn("Analysis job table full, not tracking analysis {}", analysisId);
+            return new ApiResult(200, "Analysis submitted. Call get_analysis_result with the analysisId later to get the optimization report", submission);
+        }
+
+        Deadline deadline = Deadline.after(optimizeProperties.getJobs().getResultDeadline());
+        CompletableFuture<ApiResult> report = awaitSummary(analysisId, deadline)
+                .thenCompose(summary -> processAnalysisResult(summary, workspaceId, analysisId, deadline))
+                .thenApply(result -> {
+                    if (isOptimizationReport(result)) {
+                        resultCache.put(cacheKey, result);
+                    }
+                    return result;
+                });
+        analysisJobs.put(analysisId, new AnalysisJob(analysisId, System.nanoTime(), report));
+        return new ApiResult(200, "Analysis submitted. Call get_analysis_result with the analysisId to get the optimization report", submission);
+    }
+
+    private static boolean gaveUpWaiting(AnalysisJob job) {
+        return job.report().handle((report, e) -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            return cause instanceof DeadlineExceededException;
+        }).join();
+    }
+
+    private static ApiResult analysisRunning(String analysisId) {
+        return new ApiResult(202, "Analysis is still running, call get_analysis_result again later", Map.of("analysisId", analysisId));
+    }
+
+    /**
+     * Drop finished jobs older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${pawsql.optimize.jobs.purge-interval:1m}")
+    public void purgeExpiredJobs() {
+        long retentionNanos = optimizeProperties.getJobs().getRetention().toNanos();
+        long now = System.nanoTime();
+        analysisJobs.values().removeIf(job -> job.report().isDone() && now - job.submittedAtNanos() > retentionNanos);
+    }
+
+    /**
+     * @return Whether another job fits in the table, after dropping expired jobs if it is full
+     */
+    private boolean hasJobCapacity() {
+        int maxJobs = optimizeProperties.getJobs().getMaxJobs();
+        if (analysisJobs.size() >= maxJobs) {
+            purgeExpiredJobs();
+        }
+        return analysisJobs.size() < maxJobs;
+    }
+
+    @Tool(
+            name = "optimize_sql_batch",
+            description = """
+                    Optimize several SQL statements in one analysis and return a markdown report for each statement.
+                    Prefer this over calling optimize_sql repeatedly when the user provides multiple queries
+                    """
+    )
+    public ApiResult optimizeSqlBatch(
+            @Schema(description = "SQL statements to be optimized, one statement per element", required = true)
+            List<String> sqlList,
+
+            @Schema(description = "Database type, can be null if not provided by user", required = false)
+            @ToolParam(required = false)
+            String dbType,
+
+            @Schema(description = "Do not provide default values if not provided by user. Set to null if user doesn't provide DDL or database connection info. Note that database type is required when this is not null", required = false)
+            @ToolParam(required = false)
+            DatabaseInfo dbInfo,
+
+            @Schema(description = "Whether to use workspace for optimization, based on dbInfo. True if user provides DDL info or database connection info, false otherwise", required = false)
+            boolean useWorkspace,
+
+            @Schema(description = "Existing workspace ID, true if provided by user, false otherwise", required = false)
+            @ToolParam(required = false)
+            String workspaceId,
+
+            @Schema(description = "Whether to validate optimization results. Should be false unless user explicitly requests validation. Validation requires workspace with database connection info", required = false)
+            boolean validateFlag
+    ) {
+        List<String> statements = sqlList == null ? List.of() : sqlList.stream()
+                .filter(StringUtils::isNotBlank)
+                .map(String::trim)
+                .toList();
+        if (statements.isEmpty()) {
+            return new ApiResult(400, "SQL statements cannot be empty. Please provide the SQL queries to be optimized", null);
+        }
+        int maxStatements = optimizeProperties.getBatch().getMaxStatements();
+        if (statements.size() > maxStatements) {
+            return new ApiResult(400, "Too many SQL statements: " + statements.size() + ", at most " + maxStatements + " can be optimized in one batch", null);
+        }
+        ApiResult validationResult = validateOptimizeParams(statements.get(0), dbType);
+        if (validationResult != null) return validationResult;
+
+        Deadline deadline = Deadline.after(optimizeProperties.getBatch().getDeadline());
+        log.info("Starting batch SQL optimization of {} statements, database type: {}, using workspace: {}", statements.size(), dbType, useWorkspace);
+        CompletableFuture<ApiResult> optimization;
+        try {
+            optimization = prepareWorkspace(workspaceId, useWorkspace, dbInfo, deadline)
+                    .thenCompose(finalWorkspaceId -> processBatchOptimization(toWorkload(statements), finalWorkspaceId, dbType, validateFlag, deadline));
+        } catch (Exception e) {
+            optimization = CompletableFuture.failedFuture(e);
+        }
+        Duration remaining = deadline.remaining();
+        if (remaining != null) {
+            optimization = optimization.orTimeout(remaining.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return optimization
+                .exceptionally(this::toOptimizationError)
+                .join();
     }
 
     private ApiResult validateOptimizeParams(String sql, String dbType) {
@@ -187,105 +509,248 @@ public class SqlOptimizeService {
         return null;
     }
 
-    private String prepareWorkspace(String workspaceId, boolean useWorkspace, DatabaseInfo dbInfo) {
+    private CompletableFuture<String> prepareWorkspace(String workspaceId, boolean useWorkspace, DatabaseInfo dbInfo, Deadline deadline) {
         if (StringUtils.isBlank(workspaceId) && useWorkspace && dbInfo != null) {
-            workspaceId = apiService.createWorkspace(dbInfo);
-            log.info("Workspace created: {}", workspaceId);
+            String reusableWorkspaceId = findReusableWorkspace(dbInfo);
+            if (reusableWorkspaceId != null) {
+                log.info("Reusing workspace {} created for identical DDL", reusableWorkspaceId);
+                meterRegistry.counter("pawsql.workspaces.reused").increment();
+                return CompletableFuture.completedFuture(reusableWorkspaceId);
+            }
+
+            PipelineStageEvent event = PipelineStageEvent.start(PipelineStageEvent.PREPARE_WORKSPACE);
+            CompletableFuture<String> creation = workspaceReuseRegistry.isEnabled() && WorkspaceReuseRegistry.isReusable(dbInfo) ?
+                    workspaceCreations.execute(workspaceReuseRegistry.keyOf(dbInfo), () -> apiService.createWorkspaceAsync(dbInfo, deadline)) :
+                    apiService.createWorkspaceAsync(dbInfo, deadline);
+            return event.recordOn(creation, (stage, createdWorkspaceId) -> {
+                stage.resourceId = createdWorkspaceId;
+                stage.sqlLength = dbInfo.getDdlText() != null ? dbInfo.getDdlText().length() : 0;
+            }).thenApply(createdWorkspaceId -> {
+                log.info("Workspace created: {}", createdWorkspaceId);
+                return createdWorkspaceId;
+            });
         }
-        return workspaceId;
+        return CompletableFuture.completedFuture(workspaceId);
     }
 
-    private ApiResult processOptimization(String sql, String workspaceId, String dbType, boolean validateFlag) {
-        ApiResult createResult = apiService.createAnalysis(sql, workspaceId, dbType, validateFlag);
-        if (createResult == null) {
-            log.error("Failed to create SQL analysis task");
-            return new ApiResult(500, "Failed to create SQL analysis task, please try again later", null);
+    /**
+     * Look up a workspace created earlier from the same DDL, dropping it from the registry if it has been deleted
+     */
+    private String findReusableWorkspace(DatabaseInfo dbInfo) {
+        String reusableWorkspaceId = workspaceReuseRegistry.find(dbInfo);
+        if (reusableWorkspaceId == null) {
+            return null;
+        }
+        try {
+            if (workspaceDirectory.findById(reusableWorkspaceId) == null) {
+                log.info("Workspace {} no longer exists, creating a new one", reusableWorkspaceId);
+                workspaceReuseRegistry.remove(dbInfo);
+                return null;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to verify workspace {}, reusing it anyway", reusableWorkspaceId, e);
         }
+        return reusableWorkspaceId;
+    }
 
-        Map<String, Object> data = (Map<String, Object>) createResult.data();
-        String analysisId = (String) data.get("analysisId");
-        log.info("Analysis task created, ID: {}", analysisId);
+    private CompletableFuture<ApiResult> processOptimization(String sql, String workspaceId, String dbType, boolean validateFlag, Deadline deadline) {
+        return runAnalysis(sql, workspaceId, dbType, validateFlag, deadline)
+                .thenCompose(analysis -> analysis == null ?
+                        CompletableFuture.completedFuture(analysisCreationFailed()) :
+                        processAnalysisResult(analysis.summary(), workspaceId, analysis.analysisId(), deadline));
+    }
 
-        ApiResult result = apiService.getAnalysisSummary(analysisId);
-        return processAnalysisResult(result, workspaceId, analysisId);
+    /**
+     * Create an analysis for the workload and wait for its summary
+     *
+     * @return The analysis, or null if PawSQL did not create it
+     */
+    private CompletableFuture<Analysis> runAnalysis(String workload, String workspaceId, String dbType, boolean validateFlag, Deadline deadline) {
+        return createAnalysis(workload, workspaceId, dbType, validateFlag, deadline)
+                .thenCompose(analysisId -> analysisId == null ?
+                        CompletableFuture.completedFuture(null) :
+                        awaitSummary(analysisId, deadline)
+                                .thenApply(summary -> new Analysis(analysisId, summary)));
     }
 
-    private ApiResult processAnalysisResult(ApiResult result, String workspaceId, String analysisId) {
-        Map<String, Object> summaryData = (Map<String, Object>) result.data();
-        if (summaryData == null || summaryData.get("summaryStatementInfo") == null) {
-            return result;
+    private CompletableFuture<ApiResult> awaitSummary(String analysisId, Deadline deadline) {
+        return PipelineStageEvent.start(PipelineStageEvent.GET_ANALYSIS_SUMMARY)
+                .recordOn(analysisPoller.awaitSummary(analysisId, deadline), (stage, summary) -> {
+                    stage.resourceId = analysisId;
+                    if (summary.data() instanceof AnalysisSummary summaryData) {
+                        stage.statementCount = summaryData.statementCount();
+                    }
+                });
+    }
+
+    /**
+     * @return ID of the created analysis, or null if PawSQL did not create it
+     */
+    private CompletableFuture<String> createAnalysis(String workload, String workspaceId, String dbType, boolean validateFlag, Deadline deadline) {
+        PipelineStageEvent event = PipelineStageEvent.start(PipelineStageEvent.CREATE_ANALYSIS);
+        return event.recordOn(apiService.createAnalysisAsync(workload, workspaceId, dbType, validateFlag, deadline), (stage, createResult) -> {
+                    stage.sqlLength = workload.length();
+                    if (createResult.data() instanceof Map<?, ?> data && data.get("analysisId") instanceof String analysisId) {
+                        stage.resourceId = analysisId;
+                    }
+                })
+                .thenApply(createResult -> {
+                    if (createResult == null) {
+                        log.error("Failed to create SQL analysis task");
+                        return null;
+                    }
+
+                    Map<String, Object> data = (Map<String, Object>) createResult.data();
+                    String analysisId = (String) data.get("analysisId");
+                    log.info("Analysis task created, ID: {}", analysisId);
+                    return analysisId;
+                });
+    }
+
+    private CompletableFuture<ApiResult> processAnalysisResult(ApiResult result, String workspaceId, String analysisId, Deadline deadline) {
+        if (result == null) {
+            return CompletableFuture.completedFuture(summaryFailed(analysisId));
         }
 
-        List<Map<String, Object>> stmtInfoList = (List<Map<String, Object>>) summaryData.get("summaryStatementInfo");
-        if (stmtInfoList.isEmpty()) {
-            return result;
+        String analysisStmtId = result.data() instanceof AnalysisSummary summary ? summary.firstStatementId() : null;
+        if (analysisStmtId == null) {
+            return CompletableFuture.completedFuture(withPayload(result));
         }
 
-        String analysisStmtId = (String) stmtInfoList.get(0).get("analysisStmtId");
-        ApiResult stmtDetails = apiService.getStatementDetails(analysisStmtId);
+        return getStatementDetails(analysisStmtId, deadline)
+                .thenApply(stmtDetails -> {
+                    if (stmtDetails != null && stmtDetails.data() instanceof StatementDetails detailsData) {
+                        Map<String, String> markdownParts = generateMarkdownReport(analysisStmtId, detailsData, workspaceId);
+                        return new ApiResult(result.code(), "Analysis report generated, including: 1. Report link 2. Analysis environment details 3. Optimization suggestions. This information will help you better understand and improve SQL query performance", markdownParts);
+                    }
+                    return result;
+                });
+    }
 
-        if (stmtDetails != null && stmtDetails.data() != null) {
-            Map<String, Object> detailsData = (Map<String, Object>) stmtDetails.data();
-            Map<String, String> markdownParts = generateMarkdownReport(analysisStmtId, detailsData, workspaceId);
-            return new ApiResult(result.code(), "Analysis report generated, including: 1. Report link 2. Analysis environment details 3. Optimization suggestions. This information will help you better understand and improve SQL query performance", markdownParts);
-        }
+    private CompletableFuture<ApiResult> processBatchOptimization(String workload, String workspaceId, String dbType, boolean validateFlag, Deadline deadline) {
+        return runAnalysis(workload, workspaceId, dbType, validateFlag, deadline)
+                .thenCompose(analysis -> {
+                    if (analysis == null) {
+                        return CompletableFuture.completedFuture(analysisCreationFailed());
+                    }
+                    if (analysis.summary() == null) {
+                        return CompletableFuture.completedFuture(summaryFailed(analysis.analysisId()));
+                    }
+
+                    List<StatementSummary> statements = statements(analysis.summary());
+                    if (statements.isEmpty()) {
+                        return CompletableFuture.completedFuture(withPayload(analysis.summary()));
+                    }
+
+                    log.info("Fetching details of {} statements for analysis {}", statements.size(), analysis.analysisId());
+                    return BoundedParallel.map(statements, optimizeProperties.getBatch().getDetailConcurrency(),
+                                    statement -> fetchStatementReport(statement, deadline))
+                            .thenApply(statementReports -> {
+                                Map<String, Object> batchReport = new LinkedHashMap<>();
+                                batchReport.put("analysisId", analysis.analysisId());
+                                batchReport.put("statementCount", statementReports.size());
+                                batchReport.put("statements", statementReports);
+                                batchReport.put("suggestions", markdown.suggestions(workspaceId));
+                                return new ApiResult(analysis.summary().code(), "Analysis reports generated for " + statementReports.size() + " statements, each including a report link and analysis details, followed by optimization suggestions", batchReport);
+                            });
+                });
+    }
 
-        return result;
+    /**
+     * Fetch the details of one statement; a failure is reported on that statement instead of failing the batch
+     */
+    private CompletableFuture<Map<String, String>> fetchStatementReport(StatementSummary statement, Deadline deadline) {
+        String analysisStmtId = statement.analysisStmtId();
+        return getStatementDetails(analysisStmtId, deadline)
+                .handle((stmtDetails, e) -> {
+                    Map<String, String> statementReport = new LinkedHashMap<>();
+                    statementReport.put("analysisStmtId", analysisStmtId);
+                    if (statement.performanceImprovement() != null) {
+                        statementReport.put("performanceImprovement", statement.performanceImprovement());
+                    }
+                    statementReport.put("reportLink", markdown.reportLink(analysisStmtId));
+                    if (e != null) {
+                        log.warn("Failed to get SQL statement optimization details: {}", analysisStmtId, e);
+                        statementReport.put("error", "Failed to get optimization details: " + e.getMessage());
+                    } else if (stmtDetails != null && stmtDetails.data() instanceof StatementDetails detailsData) {
+                        statementReport.put("detail", markdown.detail(detailsData, analysisStmtId));
+                    }
+                    return statementReport;
+                });
     }
 
-    private Map<String, String> generateMarkdownReport(String analysisStmtId, Map<String, Object> detailsData, String workspaceId) {
-        Map<String, String> markdownParts = new LinkedHashMap<>();
-        String reportUrl = apiService.getFrontendUrl() + "/statement/" + analysisStmtId;
+    private CompletableFuture<ApiResult> getStatementDetails(String analysisStmtId, Deadline deadline) {
+        return PipelineStageEvent.start(PipelineStageEvent.GET_STATEMENT_DETAILS)
+                .recordOn(apiService.getStatementDetailsAsync(analysisStmtId, optimizeProperties.getReport().getMaxDetailLength(), deadline), (stage, stmtDetails) -> {
+                    stage.resourceId = analysisStmtId;
+                    if (stmtDetails.data() instanceof StatementDetails detailsData) {
+                        stage.markdownLength = detailsData.detailLength();
+                    }
+                });
+    }
 
-        // Part 1: Analysis report link
-        markdownParts.put("reportLink", generateReportLink(reportUrl));
+    /**
+     * @return Statements of the summary that have an ID, with their key metrics
+     */
+    private List<StatementSummary> statements(ApiResult summary) {
+        if (!(summary.data() instanceof AnalysisSummary summaryData)) {
+            return List.of();
+        }
+        return summaryData.statements().stream().filter(statement -> statement.analysisStmtId() != null).toList();
+    }
 
-        // Part 2: Analysis environment details
-        markdownParts.put("detail", (String) detailsData.getOrDefault("detailMarkdown", ""));
+    /**
+     * @return The summary with its data in the shape PawSQL returned it
+     */
+    private static ApiResult withPayload(ApiResult summary) {
+        return summary.data() instanceof AnalysisSummary summaryData ?
+                new ApiResult(summary.code(), summary.message(), summaryData.payload()) : summary;
+    }
 
-        // Part 3: Optimization suggestions
-        markdownParts.put("suggestions", generateSuggestions(workspaceId));
+    private static ApiResult analysisCreationFailed() {
+        return new ApiResult(500, "Failed to create SQL analysis task, please try again later", null);
+    }
 
-        return markdownParts;
+    private static ApiResult summaryFailed(String analysisId) {
+        log.error("Failed to get SQL analysis summary: {}", analysisId);
+        return new ApiResult(500, "Failed to get SQL analysis summary, please try again later", null);
     }
 
-    private String generateReportLink(String reportUrl) {
-        return String.format("# SQL Optimization Analysis Report\n\n## 📊 Analysis Report\nView detailed analysis report: [Detailed Analysis Report](%s)\n", reportUrl);
+    /**
+     * Join statements into one plain_sql workload
+     */
+    private static String toWorkload(List<String> statements) {
+        return statements.stream()
+                .map(statement -> statement.endsWith(";") ? statement.substring(0, statement.length() - 1) : statement)
+                .collect(Collectors.joining(";\n", "", ";"));
     }
 
-    private String generateSuggestions(String workspaceId) {
-        StringBuilder suggestionsBuilder = new StringBuilder();
-        if (workspaceId == null) {
-            appendBasicSuggestions(suggestionsBuilder);
-        } else {
-            appendAdvancedSuggestions(suggestionsBuilder);
-        }
-        return suggestionsBuilder.toString();
+    /**
+     * @param analysisId ID of the analysis
+     * @param summary    getAnalysisSummary response, null if PawSQL returned nothing
+     */
+    private record Analysis(String analysisId, ApiResult summary) {
     }
 
-    private void appendBasicSuggestions(StringBuilder builder) {
-        builder.append("\n## Methods to Improve SQL Optimization Analysis Accuracy\n")
-                .append("To get more accurate SQL optimization suggestions, you can:\n\n")
-                .append("### Method 1: Provide Table Structure Definitions\n")
-                .append("Provide CREATE TABLE statements for relevant tables, and we will provide more accurate optimization suggestions based on the table structure.\n\n")
-                .append("### Method 2: Use PawSQL Professional Platform\n")
-                .append("Visit: " + apiService.getFrontendUrl() + "/app/workspaces\n")
-                .append("On the professional platform, you can:\n")
-                .append("• Create a validation workspace using database connection (recommended)\n")
-                .append("  - Support optimization effect validation\n")
-                .append("  - Provide visual execution plans\n")
-                .append("  - Display detailed performance metrics\n")
-                .append("• Create offline structure workspace by inputting DDL\n");
+    /**
+     * Analysis submitted with submit_analysis
+     *
+     * @param report Report, completed once the analysis has finished and its details are fetched
+     */
+    private record AnalysisJob(String analysisId, long submittedAtNanos, CompletableFuture<ApiResult> report) {
     }
 
-    private void appendAdvancedSuggestions(StringBuilder builder) {
-        builder.append("\n## Further Improve Optimization Results\n")
-                .append("You are already using a workspace for SQL optimization. To get more precise analysis results:\n\n")
-                .append("### Upgrade to Validation Workspace\n")
-                .append("Visit: " + apiService.getFrontendUrl() + "/app/workspaces\n")
-                .append("By configuring database connection information, you will get:\n")
-                .append("• Precise optimization suggestions based on real data distribution\n")
-                .append("• Complete index usage and execution plan analysis\n");
+    private Map<String, String> generateMarkdownReport(String analysisStmtId, StatementDetails detailsData, String workspaceId) {
+        PipelineStageEvent event = PipelineStageEvent.start(PipelineStageEvent.GENERATE_MARKDOWN_REPORT);
+        Map<String, String> markdownParts = markdown.report(analysisStmtId, detailsData, workspaceId);
+        event.end();
+        if (event.shouldCommit()) {
+            event.resourceId = analysisStmtId;
+            event.markdownLength = markdownParts.values().stream().mapToLong(String::length).sum();
+            event.succeeded = true;
+            event.commit();
+        }
+        return markdownParts;
     }
 
     private boolean isValidDbType(String dbType) {
@@ -0,0 +1,13 @@
+package com.pawsql.mcp.service;
+
+/**
+ * Thrown when a PawSQL API call is rejected locally because the rate limit or the endpoint's
+ * concurrency limit cannot admit it within its deadline
+ */
+public class ThrottledException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,49 @@
+package com.pawsql.mcp.service;
+
+import java.time.Duration;
+
+/**
+ * Token bucket shaping the rate of calls to PawSQL
+ * <p>
+ * Permits are reserved rather than polled: a caller that finds the bucket empty takes a permit from the future
+ * and is told how long to wait for it, so waiting callers are served in order and an async caller can schedule
+ * its call instead of blocking a thread.
+ */
+public class TokenBucketRateLimiter {
+    private final double permitsPerNano;
+    private final double burst;
+
+    private double storedPermits;
+    private long lastRefillNanos = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond Sustained rate
+     * @param burst            Number of permits that can be used at once after an idle period
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, double burst) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.burst = Math.max(1, burst);
+        this.storedPermits = this.burst;
+    }
+
+    /**
+     * Reserve one permit
+     *
+     * @param maxWait Longest acceptable wait, null for no limit
+     * @return Time to wait before using the permit, or null if it would take longer than {@code maxWait},
+     * in which case nothing is reserved
+     */
+    public synchronized Duration reserve(Duration maxWait) {
+        long now = System.nanoTime();
+        storedPermits = Math.min(burst, storedPermits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+
+        double remaining = storedPermits - 1;
+        long waitNanos = remaining >= 0 ? 0 : (long) Math.ceil(-remaining / permitsPerNano);
+        if (maxWait != null && waitNanos > maxWait.toNanos()) {
+            return null;
+        }
+        storedPermits = remaining;
+        return Duration.ofNanos(waitNanos);
+    }
+}
@@ -0,0 +1,12 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.model.DatabaseInfo;
+
+/**
+ * Published by {@link PawsqlApiService} after a workspace has been created
+ *
+ * @param workspaceId ID of the new workspace
+ * @param dbInfo      Database information the workspace was created from
+ */
+public record WorkspaceCreatedEvent(String workspaceId, DatabaseInfo dbInfo) {
+}
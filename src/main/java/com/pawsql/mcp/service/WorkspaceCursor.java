@@ -0,0 +1,49 @@
+package com.pawsql.mcp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque list_workspaces paging cursor
+ *
+ * @param pageNumber 1-based page number
+ * @param pageSize   Page size
+ */
+public record WorkspaceCursor(int pageNumber, int pageSize) {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public static WorkspaceCursor first(int pageSize) {
+        return new WorkspaceCursor(1, pageSize);
+    }
+
+    /**
+     * @param cursor Cursor previously returned by {@link #encode()}
+     * @return Decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static WorkspaceCursor decode(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException(cursor);
+        }
+        try {
+            int pageNumber = Integer.parseInt(parts[0]);
+            int pageSize = Integer.parseInt(parts[1]);
+            if (pageNumber < 1 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException(cursor);
+            }
+            return new WorkspaceCursor(pageNumber, pageSize);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(cursor, e);
+        }
+    }
+
+    public WorkspaceCursor next() {
+        return new WorkspaceCursor(pageNumber + 1, pageSize);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((pageNumber + ":" + pageSize).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,203 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.Workspace;
+import com.pawsql.mcp.model.WorkspacePage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory directory of the user's workspaces, indexed by workspace ID and name
+ * <p>
+ * The directory is refreshed in the background and invalidated whenever a workspace is created,
+ * so lookups are memory reads instead of a listWorkspaces round trip.
+ */
+@Component
+public class WorkspaceDirectory {
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceDirectory.class);
+
+    private final WorkspacePager pager;
+    private final PawsqlOptimizeProperties.Workspaces settings;
+    private final Object refreshLock = new Object();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+    /** Guarded by refreshLock */
+    private long lastMissRefreshNanos;
+
+    public WorkspaceDirectory(WorkspacePager pager, PawsqlOptimizeProperties optimizeProperties) {
+        this.pager = pager;
+        this.settings = optimizeProperties.getWorkspaces();
+        this.lastMissRefreshNanos = System.nanoTime() - settings.getMissRefreshInterval().toNanos();
+    }
+
+    /**
+     * @return All known workspaces, in the order returned by PawSQL
+     */
+    public List<Workspace> list() {
+        return current().records();
+    }
+
+    /**
+     * Read one page of workspaces, from memory if the directory is loaded, otherwise from PawSQL
+     * without loading the whole directory
+     *
+     * @param pageNumber 1-based page number
+     * @param pageSize   Page size
+     * @return Requested page
+     */
+    public WorkspacePage page(int pageNumber, int pageSize, Deadline deadline) {
+        Snapshot current = snapshot;
+        if (current == null || stale) {
+            return pager.fetchPage(pageNumber, pageSize, deadline);
+        }
+        List<Workspace> records = current.records();
+        int from = (int) Math.min((long) (pageNumber - 1) * pageSize, records.size());
+        int to = Math.min(from + pageSize, records.size());
+        return new WorkspacePage(records.subList(from, to), records.size(), pageNumber, pageSize);
+    }
+
+    /**
+     * @param workspaceId Workspace ID
+     * @return Workspace record, or null if there is no such workspace
+     */
+    public Workspace findById(String workspaceId) {
+        Workspace workspace = current().byId().get(workspaceId);
+        if (workspace == null && refreshAfterMiss()) {
+            workspace = current().byId().get(workspaceId);
+        }
+        return workspace;
+    }
+
+    /**
+     * @param workspaceName Workspace name
+     * @return Workspace record, or null if there is no such workspace
+     */
+    public Workspace findByName(String workspaceName) {
+        Workspace workspace = current().byName().get(workspaceName);
+        if (workspace == null && refreshAfterMiss()) {
+            workspace = current().byName().get(workspaceName);
+        }
+        return workspace;
+    }
+
+    /**
+     * Mark the directory stale so the next lookup reloads it
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    @EventListener
+    public void onWorkspaceCreated(WorkspaceCreatedEvent event) {
+        log.info("Workspace {} created, invalidating workspace directory", event.workspaceId());
+        invalidate();
+    }
+
+    @Scheduled(initialDelayString = "${pawsql.optimize.workspaces.refresh-interval:5m}",
+            fixedDelayString = "${pawsql.optimize.workspaces.refresh-interval:5m}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Background workspace directory refresh failed, keeping previous snapshot", e);
+        }
+    }
+
+    /**
+     * Reload the directory from PawSQL
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            stale = false;
+            try {
+                snapshot = load();
+            } catch (RuntimeException e) {
+                stale = true;
+                throw e;
+            }
+            log.info("Workspace directory refreshed, {} workspaces", snapshot.records().size());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || stale) {
+            synchronized (refreshLock) {
+                if (snapshot == null || stale) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A workspace may have been created outside this server; reload once, but not more often than configured
+     * <p>
+     * Concurrent misses share one reload, and a failed reload keeps serving the previous snapshot.
+     *
+     * @return Whether the directory was reloaded since the caller's lookup
+     */
+    private boolean refreshAfterMiss() {
+        Snapshot observed = snapshot;
+        long interval = settings.getMissRefreshInterval().toNanos();
+        if (observed != null && System.nanoTime() - observed.loadedAtNanos() < interval) {
+            return false;
+        }
+        synchronized (refreshLock) {
+            long now = System.nanoTime();
+            Snapshot current = snapshot;
+            if (current != null && now - current.loadedAtNanos() < interval) {
+                // Reloaded by another lookup while this one waited for the lock
+                return current != observed;
+            }
+            if (now - lastMissRefreshNanos < interval) {
+                return false;
+            }
+            lastMissRefreshNanos = now;
+            boolean wasStale = stale;
+            try {
+                refresh();
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Workspace directory reload after a lookup miss failed, keeping previous snapshot", e);
+                stale = wasStale;
+                return false;
+            }
+        }
+    }
+
+    private Snapshot load() {
+        List<Workspace> records = new ArrayList<>();
+        pager.forEach(records::add);
+        return Snapshot.of(List.copyOf(records));
+    }
+
+    private record Snapshot(List<Workspace> records,
+                            Map<String, Workspace> byId,
+                            Map<String, Workspace> byName,
+                            long loadedAtNanos) {
+
+        static Snapshot of(List<Workspace> records) {
+            Map<String, Workspace> byId = new HashMap<>(records.size() * 2);
+            Map<String, Workspace> byName = new HashMap<>(records.size() * 2);
+            for (Workspace workspace : records) {
+                byId.put(workspace.workspaceId(), workspace);
+                if (workspace.workspaceName() != null) {
+                    byName.putIfAbsent(workspace.workspaceName(), workspace);
+                }
+            }
+            return new Snapshot(records, byId, byName, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.ApiResult;
+import com.pawsql.mcp.model.Workspace;
+import com.pawsql.mcp.model.WorkspacePage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Iterates over all workspaces, page by page
+ * <p>
+ * The first page is read to learn the total count; the remaining pages are then fetched in parallel,
+ * at most {@code parallel-pages} at a time, and their records are handed to the consumer in page order
+ * as soon as each page arrives.
+ */
+@Component
+public class WorkspacePager {
+    private final PawsqlApiService apiService;
+    private final PawsqlOptimizeProperties.Workspaces settings;
+
+    public WorkspacePager(PawsqlApiService apiService, PawsqlOptimizeProperties optimizeProperties) {
+        this.apiService = apiService;
+        this.settings = optimizeProperties.getWorkspaces();
+    }
+
+    /**
+     * Fetch a single page
+     */
+    public WorkspacePage fetchPage(int pageNumber, int pageSize, Deadline deadline) {
+        return fetchPageAsync(pageNumber, pageSize, deadline).join();
+    }
+
+    /**
+     * Fetch a single page without blocking; cancelling the returned future aborts the HTTP exchange
+     */
+    public CompletableFuture<WorkspacePage> fetchPageAsync(int pageNumber, int pageSize, Deadline deadline) {
+        CompletableFuture<ApiResult> call = apiService.listWorkspacesAsync(pageNumber, pageSize, deadline);
+        CompletableFuture<WorkspacePage> page = call.thenApply(result -> WorkspacePage.from(result, pageNumber, pageSize));
+        page.whenComplete((ignored, e) -> {
+            if (page.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return page;
+    }
+
+    /**
+     * Stream every workspace record to the consumer
+     *
+     * @param consumer Receives records in the order returned by PawSQL
+     */
+    public void forEach(Consumer<Workspace> consumer) {
+        int pageSize = settings.getPageSize();
+        WorkspacePage page = fetchPage(1, pageSize, Deadline.none());
+        page.records().forEach(consumer);
+        if (!page.hasNext()) {
+            return;
+        }
+
+        if (page.total() < 0) {
+            // Total unknown, so the page count is too: read sequentially until a short page
+            while (page.hasNext()) {
+                page = fetchPage(page.pageNumber() + 1, pageSize, Deadline.none());
+                page.records().forEach(consumer);
+            }
+            return;
+        }
+
+        int totalPages = page.totalPages();
+        int nextPage = 2;
+        Deque<CompletableFuture<WorkspacePage>> window = new ArrayDeque<>();
+        try {
+            while (nextPage <= totalPages || !window.isEmpty()) {
+                while (nextPage <= totalPages && window.size() < settings.getParallelPages()) {
+                    window.add(fetchPageAsync(nextPage++, pageSize, Deadline.none()));
+                }
+                window.poll().join().records().forEach(consumer);
+            }
+        } finally {
+            window.forEach(pending -> pending.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.DatabaseInfo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Map from schema fingerprint to the offline workspace created for that schema
+ * <p>
+ * Workspaces are registered when {@link WorkspaceCreatedEvent} is published, so passing the same DDL again
+ * reuses the existing workspace instead of creating a new one. Entries are scoped to the PawSQL server and account,
+ * since workspace IDs mean nothing elsewhere. The map lives in memory; only when {@code store} is set is it also kept
+ * in that properties file and survives restarts. The file is written on a dedicated thread, as events are published
+ * from HTTP client I/O threads.
+ */
+@Component
+public class WorkspaceReuseRegistry {
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceReuseRegistry.class);
+
+    private final boolean enabled;
+    private final Path store;
+    private final String scope;
+    private final Properties workspaces = new Properties();
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private final ExecutorService saver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pawsql-workspace-reuse-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public WorkspaceReuseRegistry(PawsqlOptimizeProperties optimizeProperties, PawsqlApiService apiService) {
+        this(optimizeProperties.getWorkspaceReuse(), apiService.getApiBaseUrl() + "\n" + apiService.getAccount());
+    }
+
+    /**
+     * @param scope PawSQL server and account the workspaces belong to
+     */
+    WorkspaceReuseRegistry(PawsqlOptimizeProperties.WorkspaceReuse settings, String scope) {
+        this.enabled = settings.isEnabled();
+        this.store = settings.getStore() == null || settings.getStore().isBlank() ? null : Path.of(settings.getStore());
+        this.scope = scope;
+        if (enabled && store != null) {
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param dbInfo Database information
+     * @return Workspace previously created for the same database type and DDL, or null
+     */
+    public String find(DatabaseInfo dbInfo) {
+        if (!enabled || !isReusable(dbInfo)) {
+            return null;
+        }
+        synchronized (workspaces) {
+            return workspaces.getProperty(keyOf(dbInfo));
+        }
+    }
+
+    /**
+     * Forget a workspace that no longer exists on the PawSQL server
+     */
+    public void remove(DatabaseInfo dbInfo) {
+        if (!enabled || !isReusable(dbInfo)) {
+            return;
+        }
+        synchronized (workspaces) {
+            if (workspaces.remove(keyOf(dbInfo)) != null) {
+                scheduleSave();
+            }
+        }
+    }
+
+    @EventListener
+    public void onWorkspaceCreated(WorkspaceCreatedEvent event) {
+        if (!enabled || event.workspaceId() == null || !isReusable(event.dbInfo())) {
+            return;
+        }
+        synchronized (workspaces) {
+            workspaces.setProperty(keyOf(event.dbInfo()), event.workspaceId());
+            scheduleSave();
+        }
+    }
+
+    /**
+     * @return Key identifying identical schemas on this PawSQL server and account
+     */
+    public String keyOf(DatabaseInfo dbInfo) {
+        return SqlFingerprint.sha256(scope + "\n" + SqlFingerprint.ofSchema(dbInfo.getDbType(), dbInfo.getDdlText()));
+    }
+
+    /**
+     * @return Whether the database information is complete enough to be fingerprinted
+     */
+    public static boolean isReusable(DatabaseInfo dbInfo) {
+        return dbInfo != null && dbInfo.getDbType() != null && dbInfo.getDdlText() != null;
+    }
+
+    private void load() {
+        if (!Files.exists(store)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(store)) {
+            workspaces.load(in);
+            log.info("Loaded {} reusable workspaces from {}", workspaces.size(), store);
+        } catch (IOException e) {
+            log.warn("Failed to load reusable workspaces from {}", store, e);
+        }
+    }
+
+    /**
+     * Write the map in the background; saves requested while one is pending are folded into it
+     */
+    private void scheduleSave() {
+        if (store != null && savePending.compareAndSet(false, true)) {
+            saver.execute(this::save);
+        }
+    }
+
+    private void save() {
+        savePending.set(false);
+        Properties snapshot = new Properties();
+        synchronized (workspaces) {
+            snapshot.putAll(workspaces);
+        }
+        try {
+            Path parent = store.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, "workspace-reuse", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                snapshot.store(out, "PawSQL MCP server: server, account and schema fingerprint -> workspaceId");
+            }
+            Files.move(temp, store, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to save reusable workspaces to {}, keeping them in memory only", store, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        saver.shutdown();
+        if (!saver.awaitTermination(5, TimeUnit.SECONDS) && store != null) {
+            log.warn("Reusable workspaces were not saved to {} before shutdown", store);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.pawsql.mcp.tool;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.function.Supplier;
+
+/**
+ * Tool callback that runs each call of the wrapped tool inside a {@code pawsql.tool} observation, so that
+ * with a tracing bridge on the classpath every MCP tool call becomes a span and the PawSQL API calls it makes
+ * become its children
+ * <p>
+ * Must wrap the tool directly, inside any callback that moves the call to another thread, since the
+ * observation is scoped to the thread running the tool.
+ */
+public class ObservedToolCallback implements ToolCallback {
+    private final ToolCallback delegate;
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedToolCallback(ToolCallback delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return observed(() -> delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return observed(() -> delegate.call(toolInput, toolContext));
+    }
+
+    private String observed(Supplier<String> call) {
+        String toolName = getToolDefinition().name();
+        Observation observation = Observation.createNotStarted("pawsql.tool", observationRegistry)
+                .contextualName("tool " + toolName)
+                .lowCardinalityKeyValue("tool", toolName);
+        return observation.observe(() -> {
+            String result = call.get();
+            observation.lowCardinalityKeyValue("code", TimedToolCallback.resultCode(result));
+            return result;
+        });
+    }
+}
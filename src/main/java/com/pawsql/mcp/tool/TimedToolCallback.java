@@ -0,0 +1,78 @@
+package com.pawsql.mcp.tool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tool callback that records the duration of each call of the wrapped tool in the {@code pawsql.tool.calls} timer,
+ * tagged with the tool name and the code of the returned {@code ApiResult}
+ */
+public class TimedToolCallback implements ToolCallback {
+    private static final Pattern RESULT_CODE = Pattern.compile("^\\s*\\{\\s*\"code\"\\s*:\\s*(\\d+)");
+
+    private final ToolCallback delegate;
+    private final MeterRegistry meterRegistry;
+
+    public TimedToolCallback(ToolCallback delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return timed(() -> delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return timed(() -> delegate.call(toolInput, toolContext));
+    }
+
+    private String timed(Supplier<String> call) {
+        long startNanos = System.nanoTime();
+        String code = "exception";
+        try {
+            String result = call.get();
+            code = resultCode(result);
+            return result;
+        } finally {
+            Timer.builder("pawsql.tool.calls")
+                    .description("MCP tool calls")
+                    .tag("tool", getToolDefinition().name())
+                    .tag("code", code)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return Code of the serialized {@code ApiResult}, or "unknown" if the result is not one
+     */
+    static String resultCode(String result) {
+        if (result == null) {
+            return "unknown";
+        }
+        Matcher matcher = RESULT_CODE.matcher(result);
+        return matcher.find() ? matcher.group(1) : "unknown";
+    }
+}
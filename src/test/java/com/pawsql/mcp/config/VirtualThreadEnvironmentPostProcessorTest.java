@@ -0,0 +1,58 @@
+package com.pawsql.mcp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VirtualThreadEnvironmentPostProcessorTest {
+	private final VirtualThreadEnvironmentPostProcessor postProcessor = new VirtualThreadEnvironmentPostProcessor();
+
+	@Test
+	void leavesReactorAloneByDefault() {
+		withCleanProperties(() -> {
+			postProcessor.postProcessEnvironment(environment(Map.of()), null);
+			assertNull(System.getProperty(VirtualThreadEnvironmentPostProcessor.VIRTUAL_THREADS_PROPERTY));
+		});
+	}
+
+	@Test
+	void movesBoundedElasticOntoVirtualThreads() {
+		withCleanProperties(() -> {
+			StandardEnvironment environment = environment(Map.of(
+					"pawsql.optimize.virtual-threads", "true",
+					"pawsql.optimize.max-concurrent-tool-calls", "500"));
+			if (Runtime.version().feature() < 21) {
+				assertThrows(IllegalStateException.class, () -> postProcessor.postProcessEnvironment(environment, null));
+				return;
+			}
+			postProcessor.postProcessEnvironment(environment, null);
+			assertEquals("true", System.getProperty(VirtualThreadEnvironmentPostProcessor.VIRTUAL_THREADS_PROPERTY));
+			assertEquals("500", System.getProperty(VirtualThreadEnvironmentPostProcessor.SIZE_PROPERTY));
+		});
+	}
+
+	private static StandardEnvironment environment(Map<String, Object> properties) {
+		StandardEnvironment environment = new StandardEnvironment();
+		// The jdk21 build profile sets pawsql.optimize.virtual-threads as a system property
+		environment.getPropertySources().remove(StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME);
+		environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+		return environment;
+	}
+
+	private static void withCleanProperties(Runnable test) {
+		System.clearProperty(VirtualThreadEnvironmentPostProcessor.VIRTUAL_THREADS_PROPERTY);
+		System.clearProperty(VirtualThreadEnvironmentPostProcessor.SIZE_PROPERTY);
+		try {
+			test.run();
+		} finally {
+			System.clearProperty(VirtualThreadEnvironmentPostProcessor.VIRTUAL_THREADS_PROPERTY);
+			System.clearProperty(VirtualThreadEnvironmentPostProcessor.SIZE_PROPERTY);
+		}
+	}
+}
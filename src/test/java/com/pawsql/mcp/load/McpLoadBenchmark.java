@@ -0,0 +1,387 @@
+package com.pawsql.mcp.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pawsql.mcp.stub.StubPawsqlServer;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load test of the packaged MCP server against a {@link StubPawsqlServer}
+ * <p>
+ * Starts the server jar as a child process, drives it with concurrent synthetic agents calling optimize_sql,
+ * get_workspace_info and list_workspaces over STDIO and/or SSE, and reports latency percentiles and throughput
+ * per tool plus the server's GC pauses and heap use, read from its GC log. Over STDIO all agents share the
+ * single session of the child process, as an agent host multiplexing one server would; over SSE every agent
+ * has its own session.
+ * <p>
+ * Run with {@code mvn -Pload verify -DskipTests}; see the {@code load} profile in pom.xml for the options.
+ * SSE needs a jar built with the {@code sse} profile as well.
+ */
+public class McpLoadBenchmark {
+	private static final Pattern RESULT_CODE = Pattern.compile("^\\s*\\{\\s*\"code\"\\s*:\\s*(\\d+)");
+	private static final Pattern GC_PAUSE = Pattern.compile("GC\\(\\d+\\) Pause .*? (\\d+)([KMG])->(\\d+)([KMG])\\((\\d+)([KMG])\\) ([\\d.]+)ms");
+	private static final List<String> TOOLS = List.of("optimize_sql", "get_workspace_info", "list_workspaces");
+
+	private final Map<String, String> options;
+	private final Path outputDir;
+
+	McpLoadBenchmark(Map<String, String> options) {
+		this.options = options;
+		this.outputDir = Path.of(option("output", "target/load"));
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+		new McpLoadBenchmark(options).run();
+		System.exit(0);
+	}
+
+	private String option(String name, String defaultValue) {
+		String value = options.get(name);
+		return value == null || value.isBlank() ? defaultValue : value;
+	}
+
+	private int intOption(String name, int defaultValue) {
+		return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+	}
+
+	void run() throws Exception {
+		if (!options.containsKey("jar") || !Files.exists(Path.of(options.get("jar")))) {
+			throw new IllegalArgumentException("--jar must point to the packaged server, run mvn package first");
+		}
+		Files.createDirectories(outputDir);
+		Map<String, Object> results = new LinkedHashMap<>();
+		results.put("jar", option("jar", null));
+		results.put("agents", intOption("agents", 16));
+		results.put("durationSeconds", intOption("duration", 60));
+		results.put("stubLatencyMillis", intOption("stub-latency-ms", 50));
+		for (String transport : option("transports", "stdio").split(",")) {
+			try (StubPawsqlServer stub = new StubPawsqlServer(0)) {
+				stub.setLatency(Duration.ofMillis(intOption("stub-latency-ms", 50)), Duration.ofMillis(intOption("stub-jitter-ms", 20)));
+				stub.setStatementCount(intOption("statements", 1));
+				stub.setDetailMarkdownSize(intOption("detail-size", 16 * 1024));
+				stub.setWorkspaceCount(intOption("workspaces", 100));
+				results.put(transport.trim(), runTransport(transport.trim(), stub));
+			}
+		}
+
+		Path report = outputDir.resolve("load-results.json");
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+		System.out.println("Results written to " + report.toAbsolutePath());
+	}
+
+	private Map<String, Object> runTransport(String transport, StubPawsqlServer stub) throws Exception {
+		Path gcLog = outputDir.resolve(transport + "-gc.log");
+		Files.deleteIfExists(gcLog);
+		List<String> jvmArgs = new ArrayList<>(List.of("-Xmx" + option("heap", "512m"), "-Xlog:gc:file=" + gcLog.toAbsolutePath()));
+		List<String> serverArgs = new ArrayList<>(Arrays.asList(option("server-args", "").split("\\s+")));
+		serverArgs.removeIf(String::isBlank);
+		Map<String, String> env = Map.of(
+				"PAWSQL_EDITION", "community",
+				"PAWSQL_API_BASE_URL", stub.getBaseUrl(),
+				"PAWSQL_LOG_FILE", outputDir.resolve(transport + "-server.log").toAbsolutePath().toString());
+
+		System.out.println("Running " + transport + " load test");
+		int agents = intOption("agents", 16);
+		return switch (transport) {
+			case "stdio" -> {
+				List<String> command = new ArrayList<>(jvmArgs);
+				command.add("-jar");
+				command.add(option("jar", null));
+				command.addAll(serverArgs);
+				StdioClientTransport clientTransport = new StdioClientTransport(ServerParameters.builder("java")
+						.args(command)
+						.env(env)
+						.build());
+				McpSyncClient client = connect(McpClient.sync(clientTransport));
+				try {
+					yield measure(agent -> client, gcLog);
+				} finally {
+					client.closeGracefully();
+				}
+			}
+			case "sse" -> {
+				int port;
+				try (ServerSocket socket = new ServerSocket(0)) {
+					port = socket.getLocalPort();
+				}
+				List<String> command = new ArrayList<>(List.of("java"));
+				command.addAll(jvmArgs);
+				command.addAll(List.of("-jar", option("jar", null), "--spring.profiles.active=sse", "--server.port=" + port));
+				command.addAll(serverArgs);
+				ProcessBuilder processBuilder = new ProcessBuilder(command)
+						.redirectErrorStream(true)
+						.redirectOutput(outputDir.resolve("sse-console.log").toFile());
+				processBuilder.environment().putAll(env);
+				Process server = processBuilder.start();
+				try {
+					String baseUrl = "http://localhost:" + port;
+					awaitHealthy(baseUrl, server);
+					List<McpSyncClient> clients = new ArrayList<>();
+					for (int i = 0; i < agents; i++) {
+						clients.add(connect(McpClient.sync(new HttpClientSseClientTransport(baseUrl))));
+					}
+					try {
+						yield measure(clients::get, gcLog);
+					} finally {
+						clients.forEach(McpSyncClient::closeGracefully);
+					}
+				} finally {
+					server.destroy();
+					server.waitFor(30, TimeUnit.SECONDS);
+				}
+			}
+			default -> throw new IllegalArgumentException("Unknown transport: " + transport);
+		};
+	}
+
+	private static McpSyncClient connect(McpClient.SyncSpec spec) {
+		McpSyncClient client = spec.requestTimeout(Duration.ofMinutes(5)).build();
+		client.initialize();
+		return client;
+	}
+
+	private static void awaitHealthy(String baseUrl, Process server) throws Exception {
+		HttpClient http = HttpClient.newHttpClient();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+		while (System.nanoTime() < deadline) {
+			if (!server.isAlive()) {
+				throw new IllegalStateException("SSE server exited with " + server.exitValue() + ", see sse-console.log");
+			}
+			try {
+				HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build(),
+						HttpResponse.BodyHandlers.discarding());
+				if (response.statusCode() == 200) {
+					return;
+				}
+			} catch (IOException e) {
+				// Not listening yet
+			}
+			Thread.sleep(500);
+		}
+		throw new IllegalStateException("SSE server did not become healthy, see sse-console.log");
+	}
+
+	/**
+	 * Run the agents through warmup and measurement, then summarize what they recorded
+	 *
+	 * @param clients Client of each agent by agent number
+	 */
+	private Map<String, Object> measure(IntFunction<McpSyncClient> clients, Path gcLog) throws Exception {
+		int agents = intOption("agents", 16);
+		long warmupNanos = TimeUnit.SECONDS.toNanos(intOption("warmup", 10));
+		long durationNanos = TimeUnit.SECONDS.toNanos(intOption("duration", 60));
+		long startNanos = System.nanoTime();
+		long measureFromNanos = startNanos + warmupNanos;
+		long endNanos = measureFromNanos + durationNanos;
+
+		ExecutorService executor = Executors.newFixedThreadPool(agents);
+		List<Future<Recorder>> agentResults = new ArrayList<>();
+		for (int i = 0; i < agents; i++) {
+			McpSyncClient client = clients.apply(i);
+			agentResults.add(executor.submit(() -> runAgent(client, measureFromNanos, endNanos)));
+		}
+		Recorder total = new Recorder();
+		for (Future<Recorder> agentResult : agentResults) {
+			total.addAll(agentResult.get());
+		}
+		executor.shutdown();
+
+		double seconds = durationNanos / 1e9;
+		Map<String, Object> summary = new LinkedHashMap<>();
+		for (String tool : TOOLS) {
+			summary.put(tool, total.summarize(tool, seconds));
+		}
+		summary.put("all", total.summarize(null, seconds));
+		summary.put("gc", summarizeGc(gcLog));
+		print(summary);
+		return summary;
+	}
+
+	private Recorder runAgent(McpSyncClient client, long measureFromNanos, long endNanos) {
+		Recorder recorder = new Recorder();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int distinctStatements = intOption("distinct-statements", 10_000);
+		int workspaces = intOption("workspaces", 100);
+		while (true) {
+			long startNanos = System.nanoTime();
+			if (startNanos >= endNanos) {
+				return recorder;
+			}
+			int pick = random.nextInt(100);
+			String tool = pick < 60 ? "optimize_sql" : pick < 80 ? "get_workspace_info" : "list_workspaces";
+			Map<String, Object> arguments = switch (tool) {
+				// A different table per statement so that the fingerprint cache does not absorb the load
+				case "optimize_sql" -> Map.of(
+						"sql", "select * from orders_" + random.nextInt(distinctStatements) + " where o_custkey = " + random.nextInt(1000),
+						"dbType", "mysql");
+				case "get_workspace_info" -> Map.of("workspaceId", "ws-list-" + (1 + random.nextInt(workspaces)));
+				default -> Map.of();
+			};
+			boolean failed;
+			try {
+				McpSchema.CallToolResult result = client.callTool(new McpSchema.CallToolRequest(tool, arguments));
+				failed = Boolean.TRUE.equals(result.isError()) || isFailure(result);
+			} catch (Exception e) {
+				failed = true;
+			}
+			if (startNanos >= measureFromNanos) {
+				recorder.record(tool, System.nanoTime() - startNanos, failed);
+			}
+		}
+	}
+
+	private static boolean isFailure(McpSchema.CallToolResult result) {
+		for (McpSchema.Content content : result.content()) {
+			if (content instanceof McpSchema.TextContent text) {
+				Matcher matcher = RESULT_CODE.matcher(text.text());
+				return matcher.find() && Integer.parseInt(matcher.group(1)) >= 500;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Summarize the stop-the-world pauses in a unified GC log written with {@code -Xlog:gc}
+	 */
+	static Map<String, Object> summarizeGc(Path gcLog) throws IOException {
+		long pauses = 0;
+		double totalPauseMillis = 0;
+		double maxPauseMillis = 0;
+		long maxHeapAfterKb = 0;
+		long maxCommittedKb = 0;
+		if (Files.exists(gcLog)) {
+			for (String line : Files.readAllLines(gcLog)) {
+				Matcher matcher = GC_PAUSE.matcher(line);
+				if (matcher.find()) {
+					pauses++;
+					double pauseMillis = Double.parseDouble(matcher.group(7));
+					totalPauseMillis += pauseMillis;
+					maxPauseMillis = Math.max(maxPauseMillis, pauseMillis);
+					maxHeapAfterKb = Math.max(maxHeapAfterKb, toKb(matcher.group(3), matcher.group(4)));
+					maxCommittedKb = Math.max(maxCommittedKb, toKb(matcher.group(5), matcher.group(6)));
+				}
+			}
+		}
+		Map<String, Object> gc = new LinkedHashMap<>();
+		gc.put("pauses", pauses);
+		gc.put("totalPauseMillis", Math.round(totalPauseMillis * 10) / 10.0);
+		gc.put("maxPauseMillis", Math.round(maxPauseMillis * 10) / 10.0);
+		gc.put("maxHeapAfterGcMb", maxHeapAfterKb / 1024);
+		gc.put("maxCommittedHeapMb", maxCommittedKb / 1024);
+		return gc;
+	}
+
+	private static long toKb(String amount, String unit) {
+		long value = Long.parseLong(amount);
+		return switch (unit) {
+			case "G" -> value * 1024 * 1024;
+			case "M" -> value * 1024;
+			default -> value;
+		};
+	}
+
+	private static void print(Map<String, Object> summary) {
+		System.out.printf("%-20s %8s %7s %9s %9s %9s %9s%n", "tool", "calls", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms");
+		summary.forEach((name, value) -> {
+			if (value instanceof Recorder.Summary s) {
+				System.out.printf("%-20s %8d %7d %9.1f %9.1f %9.1f %9.1f%n", name, s.calls(), s.errors(), s.throughput(), s.p50Millis(), s.p95Millis(), s.p99Millis());
+			}
+		});
+		System.out.println("gc: " + summary.get("gc"));
+	}
+
+	/**
+	 * Latencies recorded by one agent, or merged from several
+	 */
+	static class Recorder {
+		private final Map<String, long[]> latencies = new HashMap<>();
+		private final Map<String, Integer> counts = new HashMap<>();
+		private final Map<String, Integer> errors = new HashMap<>();
+
+		void record(String tool, long latencyNanos, boolean failed) {
+			int count = counts.getOrDefault(tool, 0);
+			long[] values = latencies.computeIfAbsent(tool, t -> new long[1024]);
+			if (count == values.length) {
+				values = Arrays.copyOf(values, count * 2);
+				latencies.put(tool, values);
+			}
+			values[count] = latencyNanos;
+			counts.put(tool, count + 1);
+			if (failed) {
+				errors.merge(tool, 1, Integer::sum);
+			}
+		}
+
+		void addAll(Recorder other) {
+			other.counts.forEach((tool, count) -> {
+				long[] values = other.latencies.get(tool);
+				for (int i = 0; i < count; i++) {
+					record(tool, values[i], false);
+				}
+			});
+			other.errors.forEach((tool, count) -> errors.merge(tool, count, Integer::sum));
+		}
+
+		/**
+		 * @param tool Tool to summarize, null for all tools
+		 */
+		Summary summarize(String tool, double seconds) {
+			long[] values = TOOLS.stream()
+					.filter(name -> tool == null || name.equals(tool))
+					.flatMapToLong(name -> Arrays.stream(latencies.getOrDefault(name, new long[0]), 0, counts.getOrDefault(name, 0)))
+					.sorted()
+					.toArray();
+			int failed = TOOLS.stream()
+					.filter(name -> tool == null || name.equals(tool))
+					.mapToInt(name -> errors.getOrDefault(name, 0))
+					.sum();
+			return new Summary(values.length, failed, values.length / seconds,
+					percentile(values, 0.50), percentile(values, 0.95), percentile(values, 0.99));
+		}
+
+		private static double percentile(long[] sorted, double quantile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(quantile * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+
+		record Summary(int calls, int errors, double throughput, double p50Millis, double p95Millis, double p99Millis) {
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.pawsql.mcp.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class McpLoadBenchmarkTest {
+
+	@Test
+	void summarizesGcPauses() throws Exception {
+		Path gcLog = Files.createTempFile("gc", ".log");
+		try {
+			Files.write(gcLog, List.of(
+					"[0.012s][info][gc] Using G1",
+					"[1.204s][info][gc] GC(0) Pause Young (Normal) (G1 Evacuation Pause) 25M->4M(256M) 3.250ms",
+					"[2.871s][info][gc] GC(1) Concurrent Mark Cycle 12.001ms",
+					"[3.002s][info][gc] GC(2) Pause Young (Normal) (G1 Evacuation Pause) 140M->38M(512M) 7.750ms"));
+
+			Map<String, Object> gc = McpLoadBenchmark.summarizeGc(gcLog);
+			assertEquals(2L, gc.get("pauses"));
+			assertEquals(11.0, gc.get("totalPauseMillis"));
+			assertEquals(7.8, gc.get("maxPauseMillis"));
+			assertEquals(38L, gc.get("maxHeapAfterGcMb"));
+			assertEquals(512L, gc.get("maxCommittedHeapMb"));
+		} finally {
+			Files.deleteIfExists(gcLog);
+		}
+	}
+
+	@Test
+	void reportsPercentilesPerTool() {
+		McpLoadBenchmark.Recorder recorder = new McpLoadBenchmark.Recorder();
+		for (int i = 1; i <= 100; i++) {
+			recorder.record("optimize_sql", i * 1_000_000L, i > 98);
+		}
+		recorder.record("list_workspaces", 500_000L, false);
+
+		McpLoadBenchmark.Recorder.Summary summary = recorder.summarize("optimize_sql", 10);
+		assertEquals(100, summary.calls());
+		assertEquals(2, summary.errors());
+		assertEquals(10.0, summary.throughput());
+		assertEquals(50.0, summary.p50Millis());
+		assertEquals(95.0, summary.p95Millis());
+		assertEquals(99.0, summary.p99Millis());
+		assertEquals(101, recorder.summarize(null, 10).calls());
+	}
+
+}
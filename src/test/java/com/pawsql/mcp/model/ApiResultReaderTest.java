@@ -0,0 +1,94 @@
+package com.pawsql.mcp.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiResultReaderTest {
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void readsSummaryAttributesAndStatementIds() throws Exception {
+		ApiResult result = read("""
+				{"code": 200, "extra": {"nested": [1, 2]}, "message": "success", "data": {
+				  "analysisId": "an-1", "status": "completed", "statementCount": 2, "options": {"validate": true},
+				  "summaryStatementInfo": [
+				    {"stmtText": "select 1", "costBefore": 10.5, "performanceImprovement": "99%", "analysisStmtId": "s-1", "rewrites": [{"analysisStmtId": "ignored"}]},
+				    {"analysisStmtId": "s-2"}
+				  ]}}""", AnalysisSummary::read);
+
+		assertEquals(200, result.code());
+		assertEquals("success", result.message());
+		AnalysisSummary summary = (AnalysisSummary) result.data();
+		assertEquals("completed", summary.attribute("status"));
+		assertEquals("2", summary.attribute("statementCount"));
+		assertNull(summary.attribute("options"));
+		assertEquals(2, summary.statementCount());
+		assertEquals("s-1", summary.firstStatementId());
+		assertEquals(new StatementSummary("s-1", "99%"), summary.statements().get(0));
+		assertEquals(List.of("analysisId", "status", "statementCount", "summaryStatementInfo"), List.copyOf(summary.payload().keySet()));
+	}
+
+	@Test
+	void keepsScalarSummaryFieldsWithoutStatements() throws Exception {
+		String data = """
+				{"analysisId":"an-1","status":"failed","score":1.5,"validated":false,"note":null,"summaryStatementInfo":[]}""";
+		ApiResult result = read("{\"code\": 200, \"message\": \"success\", \"data\": "
+				+ data.replace("\"score\"", "\"options\":{\"validate\":true},\"score\"") + "}", AnalysisSummary::read);
+
+		AnalysisSummary summary = (AnalysisSummary) result.data();
+		assertNull(summary.firstStatementId());
+		assertNull(summary.attribute("options"));
+		assertEquals(data, objectMapper.writeValueAsString(summary));
+	}
+
+	@Test
+	void readsWorkspacePages() throws Exception {
+		ApiResult result = read("""
+				{"code": 200, "message": "success", "data": {"total": 3, "records": [
+				  {"workspaceId": "ws-1", "workspaceName": "a", "dbType": "mysql", "dbHost": "10.0.0.1", "status": "ready", "tags": ["x"]},
+				  {"workspaceId": "ws-2", "workspaceName": "b", "dbType": null, "status": "ready"}
+				]}}""", WorkspacePage.reader(1, 2));
+
+		WorkspacePage page = WorkspacePage.from(result, 1, 2);
+		assertEquals(3, page.total());
+		assertTrue(page.hasNext());
+		assertTrue(page.records().get(0).canValidate());
+		assertFalse(page.records().get(1).canValidate());
+		assertNull(page.records().get(1).dbType());
+	}
+
+	@Test
+	void capsDetailMarkdown() throws Exception {
+		String markdown = "x".repeat(20_000) + "\uD83D\uDE00";
+		String json = objectMapper.writeValueAsString(new ApiResult(200, "success", Map.of("analysisStmtId", "s-1", "detailMarkdown", markdown)));
+
+		StatementDetails full = (StatementDetails) read(json, StatementDetails::read).data();
+		assertEquals(markdown, full.detailMarkdown());
+		assertFalse(full.truncated());
+
+		StatementDetails capped = (StatementDetails) read(json, StatementDetails.reader(20_001)).data();
+		assertEquals("x".repeat(20_000), capped.detailMarkdown());
+		assertEquals(20_002, capped.detailLength());
+		assertTrue(capped.truncated());
+	}
+
+	@Test
+	void keepsNullAndUnexpectedData() throws Exception {
+		assertNull(read("{\"code\": 500, \"message\": \"failed\", \"data\": null}", StatementDetails::read).data());
+		assertNull(read("{\"code\": 200, \"data\": \"text\"}", StatementDetails::read).data());
+		assertEquals(true, read("{\"code\": 200, \"data\": true}", ApiResultReader.UNTYPED).data());
+	}
+
+	private ApiResult read(String json, ApiResultReader.DataReader<?> dataReader) throws Exception {
+		return ApiResultReader.read(objectMapper, json.getBytes(StandardCharsets.UTF_8), dataReader);
+	}
+}
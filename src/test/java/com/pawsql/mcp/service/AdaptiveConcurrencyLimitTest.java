@@ -0,0 +1,60 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+	private static final long MILLIS = 1_000_000L;
+
+	private final Bulkhead bulkhead = new Bulkhead("createAnalysis", 4, 100);
+	private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(bulkhead, 1, 10, 0.5, 2.0, 0.1);
+
+	private List<Bulkhead.Permit> fill(int calls) {
+		List<Bulkhead.Permit> permits = new ArrayList<>();
+		for (int i = 0; i < calls; i++) {
+			permits.add(bulkhead.acquire(null).join());
+		}
+		return permits;
+	}
+
+	@Test
+	void growsWhileLatencyIsStableAndTheLimitIsUsed() {
+		fill(4);
+
+		for (int i = 0; i < 20; i++) {
+			limit.onSample(System.nanoTime(), 100 * MILLIS, false);
+		}
+
+		assertTrue(limit.getLimit() > 4);
+		assertEquals(limit.getLimit(), bulkhead.getLimit());
+	}
+
+	@Test
+	void doesNotGrowWhileMostlyIdle() {
+		for (int i = 0; i < 20; i++) {
+			limit.onSample(System.nanoTime(), 100 * MILLIS, false);
+		}
+
+		assertEquals(4, limit.getLimit());
+	}
+
+	@Test
+	void shrinksOnceForCallsThatStartedBeforeTheDecrease() {
+		long start = System.nanoTime();
+		limit.onSample(start, 100 * MILLIS, false);
+
+		limit.onSample(start, 100 * MILLIS, true);
+		limit.onSample(start, 500 * MILLIS, false);
+		assertEquals(2, limit.getLimit());
+
+		limit.onSample(System.nanoTime(), 500 * MILLIS, false);
+		assertEquals(1, limit.getLimit());
+		assertEquals(1, bulkhead.getLimit());
+	}
+}
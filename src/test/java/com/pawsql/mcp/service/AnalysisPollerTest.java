@@ -0,0 +1,115 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.AnalysisSummary;
+import com.pawsql.mcp.model.ApiResult;
+import com.pawsql.mcp.model.StatementSummary;
+import com.pawsql.mcp.stub.StubbedApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisPollerTest {
+
+	private final PawsqlOptimizeProperties properties = new PawsqlOptimizeProperties();
+
+	private AnalysisPoller poller() {
+		return new AnalysisPoller(null, properties, null, null, null);
+	}
+
+	@Test
+	void backoffGrowsExponentiallyUpToTheMaximum() {
+		properties.getPolling().setJitter(0);
+		AnalysisPoller poller = poller();
+
+		assertEquals(Duration.ofMillis(500), poller.backoff(0));
+		assertEquals(Duration.ofMillis(1000), poller.backoff(1));
+		assertEquals(Duration.ofMillis(4000), poller.backoff(3));
+		assertEquals(Duration.ofSeconds(10), poller.backoff(20));
+	}
+
+	@Test
+	void jitterOnlyShortensTheDelay() {
+		properties.getPolling().setJitter(1);
+		AnalysisPoller poller = poller();
+
+		for (int i = 0; i < 100; i++) {
+			long delay = poller.backoff(2).toMillis();
+			assertTrue(delay >= 1 && delay <= 2000);
+		}
+	}
+
+	@Test
+	void detectsFinishedAnalyses() {
+		AnalysisPoller poller = poller();
+
+		assertFalse(poller.isFinished(new ApiResult(200, "ok", AnalysisSummary.of(Map.of("status", "Running"), List.of()))));
+		assertTrue(poller.isFinished(new ApiResult(200, "ok", AnalysisSummary.of(Map.of("status", "success"), List.of()))));
+		assertTrue(poller.isFinished(new ApiResult(200, "ok", AnalysisSummary.of(Map.of("status", "failed"), List.of(new StatementSummary("1", null))))));
+		assertTrue(poller.isFinished(new ApiResult(500, "failed", null)));
+	}
+
+	@Test
+	void rejectsASummaryWithoutStatus() {
+		AnalysisPoller poller = poller();
+
+		assertThrows(IllegalStateException.class,
+				() -> poller.isFinished(new ApiResult(200, "ok", AnalysisSummary.of(Map.of("analysisId", "analysis-1"), List.of()))));
+		assertThrows(IllegalStateException.class,
+				() -> poller.isFinished(new ApiResult(200, "ok", AnalysisSummary.of(Map.of(), List.of(new StatementSummary("1", null))))));
+	}
+
+	@Test
+	void failsWhenTheAnalysisIsStillRunningAfterMaxAttempts() throws Exception {
+		try (StubbedApplication application = new StubbedApplication(
+				"pawsql.optimize.polling.max-attempts=3",
+				"pawsql.optimize.polling.initial-delay=10ms",
+				"pawsql.optimize.polling.max-delay=10ms")) {
+			application.getStub().setPendingPolls(10);
+
+			CompletableFuture<ApiResult> summary = application.getBean(AnalysisPoller.class)
+					.awaitSummary("analysis-1", Deadline.after(Duration.ofSeconds(30)));
+
+			ExecutionException failure = assertThrows(ExecutionException.class, () -> summary.get(10, TimeUnit.SECONDS));
+			assertTrue(failure.getCause() instanceof DeadlineExceededException);
+			assertEquals(3, application.getStub().getRequestCount("/getAnalysisSummary"));
+		}
+	}
+
+	@Test
+	void cancellingAbortsTheSummaryRequestInFlight() throws Exception {
+		try (StubbedApplication application = new StubbedApplication("pawsql.metrics.log.enabled=true")) {
+			application.getStub().setLatency("/getAnalysisSummary", Duration.ofSeconds(30));
+			MeterRegistry registry = application.getBean(MeterRegistry.class);
+
+			CompletableFuture<ApiResult> summary = application.getBean(AnalysisPoller.class)
+					.awaitSummary("analysis-1", Deadline.after(Duration.ofMinutes(1)));
+			awaitTrue(() -> application.getStub().getRequestCount("/getAnalysisSummary") == 1);
+			summary.cancel(true);
+
+			// The attempt is only recorded once its exchange ends, which the stub would hold for 30s
+			awaitTrue(() -> registry.find("pawsql.client.requests").tag("endpoint", "getAnalysisSummary").timer() != null);
+			assertEquals(1, application.getStub().getRequestCount("/getAnalysisSummary"));
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "condition not met within 10s");
+			Thread.sleep(10);
+		}
+	}
+}
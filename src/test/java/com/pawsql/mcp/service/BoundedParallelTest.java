@@ -0,0 +1,69 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedParallelTest {
+
+	private final List<CompletableFuture<String>> started = new ArrayList<>();
+
+	private CompletableFuture<String> start(Integer item) {
+		CompletableFuture<String> call = new CompletableFuture<>();
+		started.add(call);
+		return call;
+	}
+
+	@Test
+	void keepsAtMostConcurrencyCallsInFlight() {
+		CompletableFuture<List<String>> result = BoundedParallel.map(List.of(0, 1, 2, 3, 4), 2, this::start);
+		assertEquals(2, started.size());
+
+		started.get(1).complete("1");
+		assertEquals(3, started.size());
+		started.get(0).complete("0");
+		assertEquals(4, started.size());
+		started.get(3).complete("3");
+		assertEquals(5, started.size());
+		assertFalse(result.isDone());
+	}
+
+	@Test
+	void keepsTheInputOrderWhateverTheCompletionOrder() throws Exception {
+		CompletableFuture<List<String>> result = BoundedParallel.map(List.of(0, 1, 2, 3), 4, this::start);
+		for (int i = started.size() - 1; i >= 0; i--) {
+			started.get(i).complete(String.valueOf(i));
+		}
+
+		assertEquals(List.of("0", "1", "2", "3"), result.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void firstFailureFailsTheResultAndStartsNoMoreCalls() {
+		CompletableFuture<List<String>> result = BoundedParallel.map(List.of(0, 1, 2, 3), 2, this::start);
+
+		started.get(0).completeExceptionally(new IllegalStateException("statement 0 failed"));
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof IllegalStateException);
+		assertEquals(2, started.size());
+
+		started.get(1).complete("1");
+		assertEquals(2, started.size());
+		assertFalse(started.get(1).isCompletedExceptionally());
+	}
+
+	@Test
+	void emptyInputCompletesImmediately() throws Exception {
+		assertEquals(List.of(), BoundedParallel.map(List.<Integer>of(), 4, this::start).get(5, TimeUnit.SECONDS));
+	}
+
+}
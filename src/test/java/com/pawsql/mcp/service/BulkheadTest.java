@@ -0,0 +1,60 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+	@Test
+	void queuesCallsBeyondTheLimitUntilASlotIsReleased() {
+		Bulkhead bulkhead = new Bulkhead("createAnalysis", 1, 10);
+
+		Bulkhead.Permit first = bulkhead.acquire(Duration.ofSeconds(5)).join();
+		CompletableFuture<Bulkhead.Permit> second = bulkhead.acquire(Duration.ofSeconds(5));
+		assertFalse(second.isDone());
+		assertEquals(1, bulkhead.getQueued());
+
+		first.release();
+		first.release();
+		assertTrue(second.isDone());
+		assertEquals(1, bulkhead.getInFlight());
+
+		second.join().release();
+		assertEquals(0, bulkhead.getInFlight());
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFullOrTheWaitTimesOut() {
+		Bulkhead bulkhead = new Bulkhead("createAnalysis", 1, 1);
+		bulkhead.acquire(null).join();
+
+		CompletableFuture<Bulkhead.Permit> queued = bulkhead.acquire(Duration.ofMillis(20));
+		CompletionException full = assertThrows(CompletionException.class, () -> bulkhead.acquire(Duration.ofSeconds(5)).join());
+		assertTrue(full.getCause() instanceof ThrottledException);
+
+		CompletionException timedOut = assertThrows(CompletionException.class, queued::join);
+		assertTrue(timedOut.getCause() instanceof ThrottledException);
+		assertEquals(0, bulkhead.getQueued());
+		assertEquals(2, bulkhead.getRejected());
+	}
+
+	@Test
+	void raisingTheLimitAdmitsWaitingCalls() {
+		Bulkhead bulkhead = new Bulkhead("createAnalysis", 1, 10);
+		bulkhead.acquire(null).join();
+		CompletableFuture<Bulkhead.Permit> waiting = bulkhead.acquire(null);
+
+		bulkhead.setLimit(2);
+
+		assertTrue(waiting.isDone());
+		assertEquals(2, bulkhead.getInFlight());
+	}
+}
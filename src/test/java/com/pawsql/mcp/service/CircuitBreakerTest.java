@@ -0,0 +1,80 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final List<String> transitions = new ArrayList<>();
+
+	private CircuitBreaker circuitBreaker() {
+		return new CircuitBreaker("createAnalysis", 4, 4, 0.5, Duration.ofSeconds(30), 2,
+				(name, from, to) -> transitions.add(from + "->" + to), now::get);
+	}
+
+	private void fail(CircuitBreaker circuitBreaker) {
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		circuitBreaker.onFailure();
+	}
+
+	private void succeed(CircuitBreaker circuitBreaker) {
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		circuitBreaker.onSuccess();
+	}
+
+	@Test
+	void opensWhenTheFailureRateReachesTheThreshold() {
+		CircuitBreaker circuitBreaker = circuitBreaker();
+
+		succeed(circuitBreaker);
+		succeed(circuitBreaker);
+		fail(circuitBreaker);
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+		fail(circuitBreaker);
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.tryAcquirePermission());
+		assertEquals(Duration.ofSeconds(30), circuitBreaker.getRetryAfter());
+	}
+
+	@Test
+	void closesAfterSuccessfulProbes() {
+		CircuitBreaker circuitBreaker = circuitBreaker();
+		for (int i = 0; i < 4; i++) {
+			fail(circuitBreaker);
+		}
+
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertTrue(circuitBreaker.tryAcquirePermission());
+		assertFalse(circuitBreaker.tryAcquirePermission());
+		circuitBreaker.onSuccess();
+		circuitBreaker.onSuccess();
+
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+	}
+
+	@Test
+	void reopensWhenAProbeFails() {
+		CircuitBreaker circuitBreaker = circuitBreaker();
+		for (int i = 0; i < 4; i++) {
+			fail(circuitBreaker);
+		}
+
+		now.addAndGet(Duration.ofSeconds(31).toNanos());
+		fail(circuitBreaker);
+
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.tryAcquirePermission());
+	}
+}
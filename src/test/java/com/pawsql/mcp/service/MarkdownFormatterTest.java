@@ -0,0 +1,46 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.model.StatementDetails;
+import com.pawsql.mcp.model.Workspace;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarkdownFormatterTest {
+
+	private final MarkdownFormatter formatter = new MarkdownFormatter("https://pawsql.example");
+
+	@Test
+	void formatsOneTableRowPerWorkspace() {
+		String table = MarkdownFormatter.workspaceTable(List.of(
+				new Workspace("ws-1", "orders", "mysql", "10.0.0.1", "ready"),
+				new Workspace("ws-2", "offline", null, null, null)));
+
+		assertTrue(table.contains("| orders | ws-1 | mysql | Yes | ready |\n"));
+		assertTrue(table.contains("| offline | ws-2 | - | No | - |\n"));
+	}
+
+	@Test
+	void reportHasLinkDetailAndSuggestions() {
+		Map<String, String> report = formatter.report("stmt-1", new StatementDetails("stmt-1", "## Plan", 7), null);
+
+		assertEquals(List.of("reportLink", "detail", "suggestions"), List.copyOf(report.keySet()));
+		assertTrue(report.get("reportLink").contains("(https://pawsql.example/statement/stmt-1)"));
+		assertEquals("## Plan", report.get("detail"));
+		assertNotEquals(formatter.suggestions(null), formatter.suggestions("ws-1"));
+	}
+
+	@Test
+	void truncatedDetailClosesItsCodeBlockAndLinksTheFullReport() {
+		String detail = formatter.detail(new StatementDetails("stmt-1", "## Plan\n```sql\nselect", 100), "stmt-1");
+
+		assertTrue(detail.startsWith("## Plan\n```sql\nselect\n```\n\n> Details truncated to 21 of 100 characters."));
+		assertTrue(detail.contains("(https://pawsql.example/statement/stmt-1)"));
+	}
+
+}
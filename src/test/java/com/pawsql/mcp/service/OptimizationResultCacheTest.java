@@ -0,0 +1,82 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.ApiResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class OptimizationResultCacheTest {
+
+	private static final OptimizationResultCache.Key KEY = OptimizationResultCache.keyOf("select * from t where a = 1", "MySQL", null, false);
+
+	private final ApiResult report = new ApiResult(200, "ok", "report");
+
+	private OptimizationResultCache cache(int maxSize, Duration ttl, Duration staleTtl) {
+		PawsqlOptimizeProperties properties = new PawsqlOptimizeProperties();
+		properties.getCache().setMaxSize(maxSize);
+		properties.getCache().setTtl(ttl);
+		properties.getCache().setStaleTtl(staleTtl);
+		StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry()));
+		return new OptimizationResultCache(properties, beans.getBeanProvider(MeterRegistry.class));
+	}
+
+	@Test
+	void servesEntriesWithinTheirTtl() {
+		OptimizationResultCache cache = cache(10, Duration.ofHours(1), Duration.ZERO);
+		cache.put(KEY, report);
+
+		assertSame(report, cache.get(OptimizationResultCache.keyOf("SELECT * FROM t WHERE a = 2", "mysql", null, false)));
+		assertNull(cache.get(OptimizationResultCache.keyOf("select * from t where a = 1", "mysql", null, true)));
+		assertEquals(1, cache.getStats().hits());
+		assertEquals(1, cache.getStats().misses());
+	}
+
+	@Test
+	void expiredEntriesAreOnlyServedAsStaleWithinTheStaleWindow() throws InterruptedException {
+		OptimizationResultCache cache = cache(10, Duration.ofNanos(1), Duration.ofHours(1));
+		cache.put(KEY, report);
+		Thread.sleep(2);
+
+		assertNull(cache.get(KEY));
+		assertSame(report, cache.getStale(KEY));
+		assertEquals(1, cache.getStats().size());
+	}
+
+	@Test
+	void entriesPastTheStaleWindowAreDropped() throws InterruptedException {
+		OptimizationResultCache cache = cache(10, Duration.ofNanos(1), Duration.ofNanos(1));
+		cache.put(KEY, report);
+		Thread.sleep(2);
+
+		assertNull(cache.getStale(KEY));
+		assertEquals(0, cache.getStats().size());
+		assertEquals(1, cache.getStats().expirations());
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntryWhenFull() {
+		OptimizationResultCache cache = cache(2, Duration.ofHours(1), Duration.ZERO);
+		OptimizationResultCache.Key second = OptimizationResultCache.keyOf("select * from t where b = 1", "mysql", null, false);
+		OptimizationResultCache.Key third = OptimizationResultCache.keyOf("select * from t where c = 1", "mysql", null, false);
+		cache.put(KEY, report);
+		cache.put(second, report);
+		cache.get(KEY);
+		cache.put(third, report);
+
+		assertSame(report, cache.get(KEY));
+		assertNull(cache.get(second));
+		assertSame(report, cache.get(third));
+		assertEquals(2, cache.getStats().size());
+		assertEquals(1, cache.getStats().evictions());
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.model.ApiResult;
+import com.pawsql.mcp.model.DatabaseInfo;
+import com.pawsql.mcp.stub.StubbedApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PawsqlApiServiceTest {
+
+	private static final String FAST_RETRIES = "pawsql.client.retry.initial-backoff=1ms";
+	private static final String AMPLE_BUDGET = "pawsql.client.retry.budget.min-retries-per-second=1000";
+	private static final String IDEMPOTENCY_KEY = "pawsql.client.retry.idempotency-key-header=Idempotency-Key";
+
+	private static void assertFails(CompletableFuture<ApiResult> call) {
+		assertThrows(ExecutionException.class, () -> call.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void retriesServiceUnavailable() throws Exception {
+		try (StubbedApplication application = new StubbedApplication(FAST_RETRIES, AMPLE_BUDGET)) {
+			application.getStub().setErrorRate(1.0, 503);
+
+			assertFails(application.getBean(PawsqlApiService.class).listWorkspacesAsync(1, 10, Deadline.none()));
+
+			assertEquals(3, application.getStub().getRequestCount("/listWorkspaces"));
+		}
+	}
+
+	@Test
+	void nonIdempotentCallsAreNotRetriedWithoutAnIdempotencyKey() throws Exception {
+		try (StubbedApplication application = new StubbedApplication(FAST_RETRIES, AMPLE_BUDGET)) {
+			application.getStub().setErrorRate(1.0, 503);
+
+			assertFails(application.getBean(PawsqlApiService.class).createAnalysisAsync("select 1", null, "mysql", false, Deadline.none()));
+
+			assertEquals(1, application.getStub().getRequestCount("/createAnalysis"));
+		}
+	}
+
+	@Test
+	void nonIdempotentCallsWithAnIdempotencyKeyAreRetriedOnServiceUnavailable() throws Exception {
+		try (StubbedApplication application = new StubbedApplication(FAST_RETRIES, AMPLE_BUDGET, IDEMPOTENCY_KEY)) {
+			application.getStub().setErrorRate(1.0, 503);
+
+			assertFails(application.getBean(PawsqlApiService.class).createAnalysisAsync("select 1", null, "mysql", false, Deadline.none()));
+
+			assertEquals(3, application.getStub().getRequestCount("/createAnalysis"));
+			assertNotNull(application.getStub().getLastHeaders("/createAnalysis").getFirst("Idempotency-Key"));
+		}
+	}
+
+	@Test
+	void postIsNotRetriedAfterAReadTimeout() throws Exception {
+		try (StubbedApplication application = new StubbedApplication(FAST_RETRIES, AMPLE_BUDGET, IDEMPOTENCY_KEY,
+				"pawsql.client.endpoints.createAnalysis.read-timeout=100ms")) {
+			application.getStub().setLatency("/createAnalysis", Duration.ofSeconds(1));
+
+			assertFails(application.getBean(PawsqlApiService.class).createAnalysisAsync("select 1", null, "mysql", false, Deadline.none()));
+
+			assertEquals(1, application.getStub().getRequestCount("/createAnalysis"));
+		}
+	}
+
+	@Test
+	void retriesStopWhenTheBudgetRunsOut() throws Exception {
+		try (StubbedApplication application = new StubbedApplication(FAST_RETRIES,
+				"pawsql.client.retry.budget.ratio=0", "pawsql.client.retry.budget.min-retries-per-second=0")) {
+			application.getStub().setErrorRate(1.0, 503);
+
+			assertFails(application.getBean(PawsqlApiService.class).listWorkspacesAsync(1, 10, Deadline.none()));
+
+			assertEquals(1, application.getStub().getRequestCount("/listWorkspaces"));
+		}
+	}
+
+	@Test
+	void blockingCallsWaitForTheAsyncOnes() throws Exception {
+		try (StubbedApplication application = new StubbedApplication()) {
+			PawsqlApiService apiService = application.getBean(PawsqlApiService.class);
+
+			assertNotNull(apiService.createWorkspace(DatabaseInfo.of("CREATE TABLE t (id int)", "mysql")));
+			assertEquals(200, apiService.listWorkspaces(1, 10).code());
+			assertEquals(200, apiService.createAnalysis("select 1", null, "mysql", false).code());
+			assertEquals(1, application.getStub().getRequestCount("/createAnalysis"));
+		}
+	}
+
+	@Test
+	void exposesConnectionPoolGauges() throws Exception {
+		try (StubbedApplication application = new StubbedApplication("pawsql.metrics.log.enabled=true",
+				"pawsql.client.pool.max-total=7")) {
+			application.getBean(PawsqlApiService.class).listWorkspacesAsync(1, 10, Deadline.none()).get(10, TimeUnit.SECONDS);
+
+			MeterRegistry registry = application.getBean(MeterRegistry.class);
+			assertEquals(7, registry.get("pawsql.client.pool.max").gauge().value());
+			assertEquals(0, registry.get("pawsql.client.pool.pending").gauge().value());
+			// The connection is handed back to the pool asynchronously, so it may still be leased
+			assertEquals(1, registry.get("pawsql.client.pool.leased").gauge().value()
+					+ registry.get("pawsql.client.pool.available").gauge().value(), 1);
+		}
+	}
+
+	@Test
+	void readsSettingsFromTheSpringEnvironment() throws Exception {
+		try (StubbedApplication application = new StubbedApplication()) {
+			assertEquals(application.getStub().getBaseUrl(), application.getBean(PawsqlApiService.class).getApiBaseUrl());
+		}
+
+		RuntimeException failure = assertThrows(RuntimeException.class, () -> new StubbedApplication("PAWSQL_EDITION=enterprise").close());
+		Throwable cause = failure;
+		while (cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		assertTrue(cause instanceof IllegalStateException);
+		assertEquals("PAWSQL_API_EMAIL environment variable is not set", cause.getMessage());
+	}
+
+}
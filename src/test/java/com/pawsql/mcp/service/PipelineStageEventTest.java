@@ -0,0 +1,65 @@
+package com.pawsql.mcp.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineStageEventTest {
+
+	@Test
+	void recordsStageWhenFutureCompletes() throws Exception {
+		List<RecordedEvent> events = record(() -> {
+			CompletableFuture<String> created = new CompletableFuture<>();
+			CompletableFuture<String> recorded = PipelineStageEvent.start(PipelineStageEvent.CREATE_ANALYSIS)
+					.recordOn(created, (stage, analysisId) -> {
+						stage.resourceId = analysisId;
+						stage.sqlLength = 42;
+					});
+			assertSame(created, recorded);
+			created.complete("a-1");
+
+			PipelineStageEvent.start(PipelineStageEvent.GET_STATEMENT_DETAILS)
+					.recordOn(CompletableFuture.failedFuture(new IllegalStateException()), (stage, details) -> {
+					});
+		});
+
+		assertEquals(2, events.size());
+		RecordedEvent created = events.get(0);
+		assertEquals("createAnalysis", created.getString("stage"));
+		assertEquals("a-1", created.getString("resourceId"));
+		assertEquals(42L, created.getLong("sqlLength"));
+		assertTrue(created.getBoolean("succeeded"));
+
+		RecordedEvent failed = events.get(1);
+		assertEquals("getStatementDetails", failed.getString("stage"));
+		assertFalse(failed.getBoolean("succeeded"));
+	}
+
+	private static List<RecordedEvent> record(Runnable action) throws Exception {
+		Path file = Files.createTempFile("pipeline-stage", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("com.pawsql.mcp.PipelineStage");
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file).stream()
+					.filter(event -> event.getEventType().getName().equals("com.pawsql.mcp.PipelineStage"))
+					.toList();
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+	@Test
+	void allowsRetriesInProportionToRequests() {
+		RetryBudget budget = new RetryBudget(0.1, 0, 20);
+
+		for (int i = 0; i < 20; i++) {
+			budget.recordRequest();
+		}
+
+		assertTrue(budget.tryAcquire());
+		assertTrue(budget.tryAcquire());
+		assertFalse(budget.tryAcquire());
+		assertEquals(2, budget.getGranted());
+		assertEquals(1, budget.getDenied());
+	}
+
+	@Test
+	void capsTheSavedUpBalance() {
+		RetryBudget budget = new RetryBudget(1, 0, 3);
+
+		for (int i = 0; i < 100; i++) {
+			budget.recordRequest();
+		}
+
+		int retries = 0;
+		while (budget.tryAcquire()) {
+			retries++;
+		}
+		assertEquals(3, retries);
+	}
+}
@@ -0,0 +1,109 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallsWithTheSameKeyShareOneUpstreamCall() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+		AtomicInteger started = new AtomicInteger();
+		int callers = 8;
+		CountDownLatch ready = new CountDownLatch(callers);
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<CompletableFuture<String>>> submitted = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				submitted.add(executor.submit(() -> {
+					ready.countDown();
+					ready.await();
+					return flight.execute("select 1", () -> {
+						started.incrementAndGet();
+						return upstream;
+					});
+				}));
+			}
+			List<CompletableFuture<String>> results = new ArrayList<>();
+			for (Future<CompletableFuture<String>> future : submitted) {
+				results.add(future.get(5, TimeUnit.SECONDS));
+			}
+			upstream.complete("report");
+
+			for (CompletableFuture<String> result : results) {
+				assertEquals("report", result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, started.get());
+			assertEquals(1, flight.getCalls());
+			assertEquals(callers - 1, flight.getShared());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void cancellingAWaiterDoesNotCancelTheLeader() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+		CompletableFuture<String> leader = flight.execute("key", () -> upstream);
+		CompletableFuture<String> waiter = flight.execute("key", () -> {
+			throw new AssertionError("a call for the key is already in flight");
+		});
+
+		assertTrue(waiter.cancel(true));
+		upstream.complete("report");
+
+		assertFalse(upstream.isCancelled());
+		assertEquals("report", leader.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void keyIsReleasedAfterNormalCompletion() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+		CompletableFuture<String> result = flight.execute("key", () -> upstream);
+		assertEquals(1, flight.getInFlight());
+
+		upstream.complete("first");
+		assertEquals("first", result.get(5, TimeUnit.SECONDS));
+		assertEquals(0, flight.getInFlight());
+
+		assertEquals("second", flight.execute("key", () -> CompletableFuture.completedFuture("second")).get(5, TimeUnit.SECONDS));
+		assertEquals(2, flight.getCalls());
+	}
+
+	@Test
+	void keyIsReleasedAfterExceptionalCompletion() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+		CompletableFuture<String> result = flight.execute("key", () -> upstream);
+
+		upstream.completeExceptionally(new IllegalStateException("PawSQL unavailable"));
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof IllegalStateException);
+		assertEquals(0, flight.getInFlight());
+
+		CompletableFuture<String> thrown = flight.execute("key", () -> {
+			throw new IllegalStateException("rejected");
+		});
+		assertTrue(thrown.isCompletedExceptionally());
+		assertEquals(0, flight.getInFlight());
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SqlFingerprintTest {
+
+	@Test
+	void ignoresWhitespaceCaseCommentsAndLiterals() {
+		String fingerprint = SqlFingerprint.of("SELECT * FROM orders WHERE o_custkey = 1 AND o_status = 'F'", "mysql");
+
+		assertEquals(fingerprint, SqlFingerprint.of("select *\n  from ORDERS -- recent orders\n where o_custkey=42 and o_status='O'", "mysql"));
+		assertEquals(fingerprint, SqlFingerprint.of("select /* hint */ * from orders where o_custkey = 7 and o_status = 'it''s'", "mysql"));
+	}
+
+	@Test
+	void collapsesInLists() {
+		assertEquals(SqlFingerprint.of("select * from t where id in (1, 2, 3)", "mysql"),
+				SqlFingerprint.of("select * from t where id in (4)", "mysql"));
+	}
+
+	@Test
+	void keepsArityOfValuesListsAndFunctionArguments() {
+		assertNotEquals(SqlFingerprint.of("insert into t values (1, 2)", "mysql"), SqlFingerprint.of("insert into t values (1, 2, 3)", "mysql"));
+		assertNotEquals(SqlFingerprint.of("select substr(?, ?) from t", "mysql"), SqlFingerprint.of("select substr(?, ?, ?) from t", "mysql"));
+		assertNotEquals(SqlFingerprint.of("select round(price, 2) from t", "mysql"), SqlFingerprint.of("select round(price) from t", "mysql"));
+		assertEquals("select*from t where a not in(?+)and b=round(?,?)",
+				SqlFingerprint.normalize("SELECT * FROM t WHERE a NOT IN (1, 2) AND b = ROUND(3.5, 1)", "mysql"));
+	}
+
+	@Test
+	void ignoresHashComments() {
+		assertEquals(SqlFingerprint.of("select * from t where a = 1", "mysql"),
+				SqlFingerprint.of("select * # all columns\nfrom t where a = 2 #filter", "mysql"));
+		assertEquals("select ?", SqlFingerprint.normalize("select '#not a comment'", "mysql"));
+	}
+
+	@Test
+	void keepsHashOperatorsOutsideMysql() {
+		assertNotEquals(SqlFingerprint.of("select a #> '{x}' from t where id = 1", "postgres"),
+				SqlFingerprint.of("select a #> '{x}' from t where id = 2 and b = 3", "postgres"));
+		assertEquals("select a#>>? from t where id=?", SqlFingerprint.normalize("select a #>> '{x}' from t where id = 1", "opengauss"));
+	}
+
+	@Test
+	void keepsQuotedIdentifiersCaseSensitive() {
+		assertNotEquals(SqlFingerprint.of("select \"Name\" from t", "mysql"), SqlFingerprint.of("select \"name\" from t", "mysql"));
+	}
+
+	@Test
+	void distinguishesDifferentStatements() {
+		assertNotEquals(SqlFingerprint.of("select * from t where a = 1", "mysql"), SqlFingerprint.of("select * from t where b = 1", "mysql"));
+		assertEquals("select*from t where a=? and b in(?+)", SqlFingerprint.normalize("SELECT * FROM t WHERE a = 1 AND b IN (2, 3)", "mysql"));
+	}
+
+	@Test
+	void schemaFingerprintKeepsLiterals() {
+		String ddl = "CREATE TABLE customer (c_custkey int NOT NULL, c_name varchar(25) NOT NULL)";
+
+		assertEquals(SqlFingerprint.ofSchema("mysql", ddl),
+				SqlFingerprint.ofSchema("MySQL", "create table CUSTOMER (\n  c_custkey INT not null, -- key\n  c_name VARCHAR(25) not null\n)"));
+		assertNotEquals(SqlFingerprint.ofSchema("mysql", ddl), SqlFingerprint.ofSchema("mysql", ddl.replace("25", "40")));
+		assertNotEquals(SqlFingerprint.ofSchema("mysql", ddl), SqlFingerprint.ofSchema("postgres", ddl));
+	}
+
+}
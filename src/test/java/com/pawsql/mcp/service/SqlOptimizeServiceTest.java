@@ -0,0 +1,221 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.model.ApiResult;
+import com.pawsql.mcp.stub.StubbedApplication;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlOptimizeServiceTest {
+
+	private static final String SQL = "select * from orders where o_custkey = 1";
+
+	private static StubbedApplication application(String... properties) throws Exception {
+		return new StubbedApplication(properties);
+	}
+
+	private static String submit(SqlOptimizeService service) {
+		ApiResult submission = service.submitAnalysis(SQL, "mysql", null, false, null, false);
+		assertEquals(200, submission.code());
+		return (String) ((Map<?, ?>) submission.data()).get("analysisId");
+	}
+
+	private static ApiResult awaitResult(SqlOptimizeService service, String analysisId) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		ApiResult result = service.getAnalysisResult(analysisId);
+		while (result.code() == 202 && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			result = service.getAnalysisResult(analysisId);
+		}
+		return result;
+	}
+
+	@Test
+	void completedJobIsServedFromTheJobTable() throws Exception {
+		try (StubbedApplication application = application("pawsql.optimize.polling.initial-delay=10ms")) {
+			application.getStub().setPendingPolls(2);
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			String analysisId = submit(service);
+			ApiResult report = awaitResult(service, analysisId);
+			assertEquals(200, report.code());
+			assertTrue(((Map<?, ?>) report.data()).containsKey("reportLink"));
+
+			long summaryCalls = application.getStub().getRequestCount("/getAnalysisSummary");
+			assertEquals(report, service.getAnalysisResult(analysisId));
+			assertEquals(summaryCalls, application.getStub().getRequestCount("/getAnalysisSummary"));
+		}
+	}
+
+	@Test
+	void failedJobReportsItsError() throws Exception {
+		try (StubbedApplication application = application("pawsql.optimize.polling.initial-delay=50ms")) {
+			application.getStub().setPendingPolls(1);
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			String analysisId = submit(service);
+			application.getStub().setErrorRate(1.0, 500);
+
+			assertEquals(500, awaitResult(service, analysisId).code());
+		}
+	}
+
+	@Test
+	void unknownAnalysisIsLookedUpOnPawsql() throws Exception {
+		try (StubbedApplication application = application()) {
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			assertEquals(400, service.getAnalysisResult("").code());
+			assertEquals(200, service.getAnalysisResult("an-elsewhere").code());
+			assertEquals(1, application.getStub().getRequestCount("/getAnalysisSummary"));
+
+			application.getStub().setPendingPolls(5);
+			assertEquals(202, service.getAnalysisResult("an-running").code());
+		}
+	}
+
+	@Test
+	void expiredJobsArePurged() throws Exception {
+		try (StubbedApplication application = application("pawsql.optimize.jobs.retention=0ms")) {
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+			String analysisId = submit(service);
+			assertEquals(200, awaitResult(service, analysisId).code());
+			long summaryCalls = application.getStub().getRequestCount("/getAnalysisSummary");
+
+			Thread.sleep(5);
+			service.purgeExpiredJobs();
+
+			assertEquals(200, service.getAnalysisResult(analysisId).code());
+			assertEquals(summaryCalls + 1, application.getStub().getRequestCount("/getAnalysisSummary"));
+		}
+	}
+
+	@Test
+	void submissionsAreRejectedWhileTheJobTableIsFull() throws Exception {
+		try (StubbedApplication application = application("pawsql.optimize.jobs.max-jobs=1")) {
+			application.getStub().setPendingPolls(1000);
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			submit(service);
+
+			assertEquals(429, service.submitAnalysis(SQL, "mysql", null, false, null, false).code());
+			assertEquals(1, application.getStub().getRequestCount("/createAnalysis"));
+		}
+	}
+
+	@Test
+	void retriesTransientFailuresOfIdempotentCalls() throws Exception {
+		try (StubbedApplication application = application("pawsql.client.retry.initial-backoff=1ms",
+				"pawsql.client.retry.budget.min-retries-per-second=1000")) {
+			application.getStub().setErrorRate(1.0, 503);
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			assertEquals(500, service.listWorkspaces(null).code());
+			assertEquals(3, application.getStub().getRequestCount("/listWorkspaces"));
+		}
+	}
+
+	@Test
+	void reportsUnavailableWhileTheCircuitIsOpen() throws Exception {
+		try (StubbedApplication application = application("pawsql.client.circuit-breaker.window-size=2",
+				"pawsql.client.circuit-breaker.minimum-calls=2")) {
+			application.getStub().setErrorRate(1.0, 500);
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			assertEquals(500, service.optimizeSql(SQL, "mysql", null, false, null, false).code());
+			assertEquals(500, service.optimizeSql(SQL, "mysql", null, false, null, false).code());
+			assertEquals(503, service.optimizeSql(SQL, "mysql", null, false, null, false).code());
+			assertEquals(2, application.getStub().getRequestCount("/createAnalysis"));
+		}
+	}
+
+	@Test
+	void servesAStaleReportWhileTheCircuitIsOpen() throws Exception {
+		try (StubbedApplication application = application("pawsql.optimize.cache.ttl=1ms",
+				"pawsql.client.circuit-breaker.window-size=2", "pawsql.client.circuit-breaker.minimum-calls=2",
+				"pawsql.client.circuit-breaker.failure-rate-threshold=1.0")) {
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+			ApiResult fresh = service.optimizeSql(SQL, "mysql", null, false, null, false);
+			assertEquals(200, fresh.code());
+			Thread.sleep(5);
+
+			application.getStub().setErrorRate(1.0, 500);
+			assertEquals(500, service.optimizeSql(SQL, "mysql", null, false, null, false).code());
+			assertEquals(500, service.optimizeSql(SQL, "mysql", null, false, null, false).code());
+			ApiResult stale = service.optimizeSql(SQL, "mysql", null, false, null, false);
+
+			assertEquals(200, stale.code());
+			assertTrue(stale.message().startsWith("PawSQL server is currently unavailable"));
+			assertTrue(stale.message().endsWith(fresh.message()));
+			assertEquals(fresh.data(), stale.data());
+			assertEquals(3, application.getStub().getRequestCount("/createAnalysis"));
+		}
+	}
+
+	@Test
+	void reportsTimeoutWhenTheDeadlineExpires() throws Exception {
+		try (StubbedApplication application = application("pawsql.optimize.deadline=200ms")) {
+			application.getStub().setLatency("/createAnalysis", Duration.ofSeconds(2));
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			long startNanos = System.nanoTime();
+			assertEquals(504, service.optimizeSql(SQL, "mysql", null, false, null, false).code());
+			assertTrue(System.nanoTime() - startNanos < Duration.ofSeconds(2).toNanos());
+		}
+	}
+
+	@Test
+	void batchJoinsStatementsIntoOneWorkload() throws Exception {
+		try (StubbedApplication application = application()) {
+			application.getStub().setStatementCount(2);
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			ApiResult report = service.optimizeSqlBatch(List.of("select 1;", " ", " select 2 "), "mysql", null, false, null, false);
+
+			assertEquals(200, report.code());
+			assertEquals("select 1;\nselect 2;", application.getStub().getLastRequest("/createAnalysis").get("workload"));
+			assertEquals(1, application.getStub().getRequestCount("/createAnalysis"));
+			assertEquals(2, ((Map<?, ?>) report.data()).get("statementCount"));
+		}
+	}
+
+	@Test
+	void batchReportsAFailingStatementWithoutFailingTheOthers() throws Exception {
+		try (StubbedApplication application = application()) {
+			application.getStub().setStatementCount(3);
+			application.getStub().setFailingStatement(2);
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			ApiResult report = service.optimizeSqlBatch(List.of("select 1", "select 2", "select 3"), "mysql", null, false, null, false);
+
+			assertEquals(200, report.code());
+			List<?> statements = (List<?>) ((Map<?, ?>) report.data()).get("statements");
+			assertEquals(3, statements.size());
+			assertTrue(((Map<?, ?>) statements.get(1)).containsKey("error"));
+			for (int i : new int[]{0, 2}) {
+				Map<?, ?> statement = (Map<?, ?>) statements.get(i);
+				assertFalse(statement.containsKey("error"));
+				assertTrue(statement.containsKey("detail"));
+			}
+		}
+	}
+
+	@Test
+	void batchOverMaxStatementsIsRejected() throws Exception {
+		try (StubbedApplication application = application("pawsql.optimize.batch.max-statements=2")) {
+			SqlOptimizeService service = application.getBean(SqlOptimizeService.class);
+
+			ApiResult report = service.optimizeSqlBatch(List.of("select 1", "select 2", "select 3"), "mysql", null, false, null, false);
+
+			assertEquals(400, report.code());
+			assertEquals(0, application.getStub().getRequestCount("/createAnalysis"));
+		}
+	}
+
+}
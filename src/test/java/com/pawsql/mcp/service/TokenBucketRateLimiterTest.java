@@ -0,0 +1,33 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+	@Test
+	void servesTheBurstAtOnceAndDelaysTheRest() {
+		TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 2);
+
+		assertEquals(Duration.ZERO, rateLimiter.reserve(null));
+		assertEquals(Duration.ZERO, rateLimiter.reserve(null));
+
+		Duration wait = rateLimiter.reserve(null);
+		assertTrue(wait.toMillis() > 900 && wait.toMillis() <= 1000);
+	}
+
+	@Test
+	void reservesNothingWhenTheWaitIsTooLong() {
+		TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 1);
+		rateLimiter.reserve(null);
+
+		assertNull(rateLimiter.reserve(Duration.ofMillis(100)));
+		assertNull(rateLimiter.reserve(Duration.ofMillis(100)));
+		assertTrue(rateLimiter.reserve(Duration.ofSeconds(2)).toMillis() <= 1000);
+	}
+}
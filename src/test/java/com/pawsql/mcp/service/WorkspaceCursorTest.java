@@ -0,0 +1,36 @@
+package com.pawsql.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkspaceCursorTest {
+
+	private static String encode(String text) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void roundTrips() {
+		WorkspaceCursor cursor = WorkspaceCursor.first(10).next().next();
+
+		assertEquals(new WorkspaceCursor(3, 10), cursor);
+		assertEquals(cursor, WorkspaceCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> WorkspaceCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> WorkspaceCursor.decode(encode("3")));
+		assertThrows(IllegalArgumentException.class, () -> WorkspaceCursor.decode(encode("3:10:1")));
+		assertThrows(IllegalArgumentException.class, () -> WorkspaceCursor.decode(encode("three:10")));
+		assertThrows(IllegalArgumentException.class, () -> WorkspaceCursor.decode(encode("0:10")));
+		assertThrows(IllegalArgumentException.class, () -> WorkspaceCursor.decode(encode("1:0")));
+		assertThrows(IllegalArgumentException.class, () -> WorkspaceCursor.decode(encode("1:101")));
+	}
+
+}
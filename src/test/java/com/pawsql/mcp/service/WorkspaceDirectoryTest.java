@@ -0,0 +1,132 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.Workspace;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WorkspaceDirectoryTest {
+
+	private static final Duration MISS_REFRESH_INTERVAL = Duration.ofMillis(50);
+
+	/**
+	 * Serves the configured workspaces, or fails while {@code failing} is set
+	 */
+	private static final class FakePager extends WorkspacePager {
+		final List<Workspace> workspaces = new CopyOnWriteArrayList<>();
+		final AtomicInteger loads = new AtomicInteger();
+		volatile boolean failing;
+
+		FakePager(PawsqlOptimizeProperties properties) {
+			super(null, properties);
+		}
+
+		@Override
+		public void forEach(Consumer<Workspace> consumer) {
+			loads.incrementAndGet();
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (failing) {
+				throw new IllegalStateException("PawSQL unavailable");
+			}
+			workspaces.forEach(consumer);
+		}
+	}
+
+	private static Workspace workspace(String id) {
+		return new Workspace(id, "name-" + id, "mysql", null, "SUCCEEDED");
+	}
+
+	private static FakePager pager(PawsqlOptimizeProperties properties, String... ids) {
+		FakePager pager = new FakePager(properties);
+		for (String id : ids) {
+			pager.workspaces.add(workspace(id));
+		}
+		return pager;
+	}
+
+	private static PawsqlOptimizeProperties properties() {
+		PawsqlOptimizeProperties properties = new PawsqlOptimizeProperties();
+		properties.getWorkspaces().setMissRefreshInterval(MISS_REFRESH_INTERVAL);
+		return properties;
+	}
+
+	@Test
+	void missReloadsOnceToFindWorkspacesCreatedElsewhere() throws InterruptedException {
+		PawsqlOptimizeProperties properties = properties();
+		FakePager pager = pager(properties, "ws-1");
+		WorkspaceDirectory directory = new WorkspaceDirectory(pager, properties);
+
+		assertEquals("ws-1", directory.findById("ws-1").workspaceId());
+		pager.workspaces.add(workspace("ws-2"));
+		assertNull(directory.findById("ws-2"));
+		assertEquals(1, pager.loads.get());
+
+		Thread.sleep(MISS_REFRESH_INTERVAL.toMillis() + 10);
+		assertEquals("ws-2", directory.findByName("name-ws-2").workspaceId());
+		assertEquals(2, pager.loads.get());
+	}
+
+	@Test
+	void concurrentMissesShareOneReload() throws Exception {
+		PawsqlOptimizeProperties properties = properties();
+		FakePager pager = pager(properties, "ws-1");
+		WorkspaceDirectory directory = new WorkspaceDirectory(pager, properties);
+		directory.list();
+		Thread.sleep(MISS_REFRESH_INTERVAL.toMillis() + 10);
+
+		int callers = 8;
+		CountDownLatch ready = new CountDownLatch(callers);
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<Workspace>> lookups = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				lookups.add(executor.submit(() -> {
+					ready.countDown();
+					ready.await();
+					return directory.findById("missing");
+				}));
+			}
+			for (Future<Workspace> lookup : lookups) {
+				assertNull(lookup.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2, pager.loads.get());
+	}
+
+	@Test
+	void failedReloadKeepsServingThePreviousSnapshot() throws InterruptedException {
+		PawsqlOptimizeProperties properties = properties();
+		FakePager pager = pager(properties, "ws-1");
+		WorkspaceDirectory directory = new WorkspaceDirectory(pager, properties);
+		directory.list();
+		Thread.sleep(MISS_REFRESH_INTERVAL.toMillis() + 10);
+		pager.failing = true;
+
+		assertNull(directory.findById("missing"));
+		assertNull(directory.findById("missing"));
+		assertEquals("ws-1", directory.findById("ws-1").workspaceId());
+		assertEquals(List.of(workspace("ws-1")), directory.list());
+		assertEquals(2, pager.loads.get());
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.Workspace;
+import com.pawsql.mcp.model.WorkspacePage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkspacePagerTest {
+
+	/**
+	 * Serves {@code total} workspaces after a random delay, failing the page numbered {@code failingPage}
+	 */
+	private static final class FakePager extends WorkspacePager {
+		final int total;
+		final int failingPage;
+		final Map<Integer, CompletableFuture<WorkspacePage>> requested = new ConcurrentHashMap<>();
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		FakePager(PawsqlOptimizeProperties properties, int total, int failingPage) {
+			super(null, properties);
+			this.total = total;
+			this.failingPage = failingPage;
+		}
+
+		@Override
+		public CompletableFuture<WorkspacePage> fetchPageAsync(int pageNumber, int pageSize, Deadline deadline) {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			long delay = pageNumber == failingPage ? 0 : ThreadLocalRandom.current().nextLong(1, 20);
+			CompletableFuture<WorkspacePage> page = CompletableFuture.supplyAsync(() -> {
+				inFlight.decrementAndGet();
+				if (pageNumber == failingPage) {
+					throw new IllegalStateException("page " + pageNumber + " failed");
+				}
+				List<Workspace> records = new ArrayList<>();
+				for (int i = (pageNumber - 1) * pageSize; i < Math.min(pageNumber * pageSize, total); i++) {
+					records.add(new Workspace("ws-" + i, "name-" + i, "mysql", null, "SUCCEEDED"));
+				}
+				return new WorkspacePage(records, total, pageNumber, pageSize);
+			}, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+			requested.put(pageNumber, page);
+			return page;
+		}
+	}
+
+	private static PawsqlOptimizeProperties properties(int pageSize, int parallelPages) {
+		PawsqlOptimizeProperties properties = new PawsqlOptimizeProperties();
+		properties.getWorkspaces().setPageSize(pageSize);
+		properties.getWorkspaces().setParallelPages(parallelPages);
+		return properties;
+	}
+
+	@Test
+	void fetchesPagesInParallelWithinTheWindowAndKeepsTheirOrder() {
+		FakePager pager = new FakePager(properties(10, 3), 95, -1);
+		List<String> ids = new ArrayList<>();
+
+		pager.forEach(workspace -> ids.add(workspace.workspaceId()));
+
+		assertEquals(95, ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals("ws-" + i, ids.get(i));
+		}
+		assertEquals(10, pager.requested.size());
+		assertTrue(pager.maxInFlight.get() <= 3);
+	}
+
+	@Test
+	void stopsAtTheLastPage() {
+		FakePager pager = new FakePager(properties(10, 4), 20, -1);
+		List<String> ids = new ArrayList<>();
+
+		pager.forEach(workspace -> ids.add(workspace.workspaceId()));
+
+		assertEquals(20, ids.size());
+		assertEquals(2, pager.requested.size());
+		assertFalse(new WorkspacePage(List.of(), 20, 2, 10).hasNext());
+		assertTrue(new WorkspacePage(List.of(), 21, 2, 10).hasNext());
+	}
+
+	@Test
+	void failedPageCancelsThePagesStillInFlight() {
+		FakePager pager = new FakePager(properties(10, 4), 100, 2);
+
+		assertThrows(CompletionException.class, () -> pager.forEach(workspace -> {
+		}));
+
+		for (int pageNumber = 3; pageNumber <= 5; pageNumber++) {
+			CompletableFuture<WorkspacePage> page = pager.requested.get(pageNumber);
+			assertTrue(page.isCancelled() || page.isDone() && !page.isCompletedExceptionally());
+		}
+		assertEquals(5, pager.requested.size());
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.pawsql.mcp.service;
+
+import com.pawsql.mcp.config.PawsqlOptimizeProperties;
+import com.pawsql.mcp.model.DatabaseInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WorkspaceReuseRegistryTest {
+
+	private static final String SCOPE = "http://pawsql.local\nuser@example.com";
+	private static final DatabaseInfo SCHEMA = DatabaseInfo.of("CREATE TABLE t (id int NOT NULL)", "mysql");
+
+	@TempDir
+	Path directory;
+
+	private PawsqlOptimizeProperties.WorkspaceReuse settings(boolean enabled) {
+		PawsqlOptimizeProperties.WorkspaceReuse settings = new PawsqlOptimizeProperties.WorkspaceReuse();
+		settings.setEnabled(enabled);
+		settings.setStore(directory.resolve("reuse/workspace-reuse.properties").toString());
+		return settings;
+	}
+
+	/**
+	 * Register a workspace in a fresh registry and wait for it to be saved
+	 */
+	private void register(String scope, DatabaseInfo dbInfo, String workspaceId) throws InterruptedException {
+		WorkspaceReuseRegistry registry = new WorkspaceReuseRegistry(settings(true), scope);
+		registry.onWorkspaceCreated(new WorkspaceCreatedEvent(workspaceId, dbInfo));
+		registry.shutdown();
+	}
+
+	@Test
+	void reusesTheWorkspaceOfIdenticalDdl() throws Exception {
+		WorkspaceReuseRegistry registry = new WorkspaceReuseRegistry(settings(true), SCOPE);
+		registry.onWorkspaceCreated(new WorkspaceCreatedEvent("ws-1", SCHEMA));
+
+		assertEquals("ws-1", registry.find(DatabaseInfo.of("create table T (\n  id INT not null -- key\n)", "MySQL")));
+		assertNull(registry.find(DatabaseInfo.of("CREATE TABLE t (id bigint NOT NULL)", "mysql")));
+		assertNull(registry.find(DatabaseInfo.of("CREATE TABLE t (id int NOT NULL)", "postgres")));
+		registry.shutdown();
+	}
+
+	@Test
+	void keepsWorkspacesAcrossRestarts() throws Exception {
+		register(SCOPE, SCHEMA, "ws-1");
+
+		assertEquals("ws-1", new WorkspaceReuseRegistry(settings(true), SCOPE).find(SCHEMA));
+	}
+
+	@Test
+	void scopesWorkspacesToServerAndAccount() throws Exception {
+		register(SCOPE, SCHEMA, "ws-1");
+
+		assertNull(new WorkspaceReuseRegistry(settings(true), "http://pawsql.local\nother@example.com").find(SCHEMA));
+		assertNull(new WorkspaceReuseRegistry(settings(true), "http://other.local\nuser@example.com").find(SCHEMA));
+	}
+
+	@Test
+	void forgetsDeletedWorkspaces() throws Exception {
+		register(SCOPE, SCHEMA, "ws-1");
+
+		WorkspaceReuseRegistry registry = new WorkspaceReuseRegistry(settings(true), SCOPE);
+		registry.remove(SCHEMA);
+		assertNull(registry.find(SCHEMA));
+		registry.shutdown();
+
+		assertNull(new WorkspaceReuseRegistry(settings(true), SCOPE).find(SCHEMA));
+	}
+
+	@Test
+	void keepsWorkspacesInMemoryWithoutStore() throws Exception {
+		PawsqlOptimizeProperties.WorkspaceReuse inMemory = new PawsqlOptimizeProperties.WorkspaceReuse();
+		WorkspaceReuseRegistry registry = new WorkspaceReuseRegistry(inMemory, SCOPE);
+		registry.onWorkspaceCreated(new WorkspaceCreatedEvent("ws-1", SCHEMA));
+		registry.shutdown();
+
+		assertEquals("ws-1", registry.find(SCHEMA));
+		assertNull(new WorkspaceReuseRegistry(inMemory, SCOPE).find(SCHEMA));
+	}
+
+	@Test
+	void storesNothingWhenDisabled() throws Exception {
+		WorkspaceReuseRegistry registry = new WorkspaceReuseRegistry(settings(false), SCOPE);
+		registry.onWorkspaceCreated(new WorkspaceCreatedEvent("ws-1", SCHEMA));
+		registry.shutdown();
+
+		assertNull(registry.find(SCHEMA));
+		assertFalse(Files.exists(directory.resolve("reuse")));
+	}
+}
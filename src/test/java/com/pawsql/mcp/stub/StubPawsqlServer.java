@@ -0,0 +1,297 @@
+package com.pawsql.mcp.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in for the PawSQL API, for load, latency and resilience tests that run offline
+ * <p>
+ * Serves the endpoints the MCP server calls under {@code /api/v1} with responses shaped like PawSQL's.
+ * Latency, error rate and payload sizes can be changed while the server is running. Responses are
+ * delayed on a timer instead of a sleeping thread, so thousands of concurrent requests stay cheap.
+ * <p>
+ * Can also be started on its own for manual testing:
+ * {@code java -cp target/test-classes:<test classpath> com.pawsql.mcp.stub.StubPawsqlServer 8090}, then run the
+ * MCP server with {@code PAWSQL_EDITION=community} and {@code PAWSQL_API_BASE_URL=http://localhost:8090}.
+ */
+public class StubPawsqlServer implements AutoCloseable {
+	public static final String API_PATH = "/api/v1";
+	public static final List<String> ENDPOINTS = List.of("/getUserKey", "/validateUserKey", "/createWorkspace",
+			"/createAnalysis", "/getAnalysisSummary", "/getStatementDetails", "/listWorkspaces");
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpServer server;
+	private final ScheduledExecutorService timer;
+	private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+	private final Map<String, Headers> lastHeaders = new ConcurrentHashMap<>();
+	private final Map<String, Map<String, Object>> lastRequests = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> summaryPolls = new ConcurrentHashMap<>();
+	private final AtomicLong ids = new AtomicLong();
+
+	private volatile Duration latency = Duration.ZERO;
+	private volatile Duration latencyJitter = Duration.ZERO;
+	private final Map<String, Duration> latencyByEndpoint = new ConcurrentHashMap<>();
+	private volatile double errorRate;
+	private volatile int errorStatus = 503;
+	private volatile int pendingPolls;
+	private volatile int statementCount = 1;
+	private volatile int failingStatement;
+	private volatile int detailMarkdownSize = 2 * 1024;
+	private volatile int workspaceCount = 10;
+
+	/**
+	 * Start a server on the given port, 0 for any free port
+	 */
+	public StubPawsqlServer(int port) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+		this.timer = Executors.newScheduledThreadPool(2, runnable -> {
+			Thread thread = new Thread(runnable, "stub-pawsql-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(Executors.newFixedThreadPool(4, runnable -> {
+			Thread thread = new Thread(runnable, "stub-pawsql-http");
+			thread.setDaemon(true);
+			return thread;
+		}));
+		for (String endpoint : ENDPOINTS) {
+			requestCounts.put(endpoint, new AtomicLong());
+			server.createContext(API_PATH + endpoint, exchange -> handle(endpoint, exchange));
+		}
+		server.start();
+	}
+
+	public static void main(String[] args) throws IOException {
+		StubPawsqlServer stub = new StubPawsqlServer(args.length > 0 ? Integer.parseInt(args[0]) : 8090);
+		if (args.length > 1) {
+			stub.setLatency(Duration.ofMillis(Long.parseLong(args[1])), Duration.ZERO);
+		}
+		System.out.println("Stub PawSQL server listening on " + stub.getBaseUrl());
+	}
+
+	/**
+	 * @return Base URL to use as {@code PAWSQL_API_BASE_URL}
+	 */
+	public String getBaseUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Delay every response by {@code latency} plus a random share of {@code jitter}
+	 */
+	public void setLatency(Duration latency, Duration jitter) {
+		this.latency = latency;
+		this.latencyJitter = jitter;
+	}
+
+	/**
+	 * Delay responses of one endpoint by {@code latency} instead, e.g. "/createAnalysis"
+	 */
+	public void setLatency(String endpoint, Duration latency) {
+		latencyByEndpoint.put(endpoint, latency);
+	}
+
+	/**
+	 * Fail the given share of requests with HTTP {@code errorStatus}
+	 */
+	public void setErrorRate(double errorRate, int errorStatus) {
+		this.errorRate = errorRate;
+		this.errorStatus = errorStatus;
+	}
+
+	/**
+	 * Number of getAnalysisSummary calls per analysis that report it as still running
+	 */
+	public void setPendingPolls(int pendingPolls) {
+		this.pendingPolls = pendingPolls;
+	}
+
+	/**
+	 * Number of statements in each analysis summary
+	 */
+	public void setStatementCount(int statementCount) {
+		this.statementCount = statementCount;
+	}
+
+	/**
+	 * Fail getStatementDetails of the given 1-based statement of every analysis with HTTP 500, 0 for none
+	 */
+	public void setFailingStatement(int failingStatement) {
+		this.failingStatement = failingStatement;
+	}
+
+	/**
+	 * Characters of detailMarkdown in each getStatementDetails response
+	 */
+	public void setDetailMarkdownSize(int detailMarkdownSize) {
+		this.detailMarkdownSize = detailMarkdownSize;
+	}
+
+	/**
+	 * Number of workspaces served by listWorkspaces
+	 */
+	public void setWorkspaceCount(int workspaceCount) {
+		this.workspaceCount = workspaceCount;
+	}
+
+	public long getRequestCount(String endpoint) {
+		return requestCounts.get(endpoint).get();
+	}
+
+	/**
+	 * @return Headers of the latest request to the endpoint, or null if it has not been called
+	 */
+	public Headers getLastHeaders(String endpoint) {
+		return lastHeaders.get(endpoint);
+	}
+
+	/**
+	 * @return Body of the latest request to the endpoint, or null if it has not been called
+	 */
+	public Map<String, Object> getLastRequest(String endpoint) {
+		return lastRequests.get(endpoint);
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		timer.shutdownNow();
+		((ExecutorService) server.getExecutor()).shutdownNow();
+	}
+
+	private void handle(String endpoint, HttpExchange exchange) {
+		requestCounts.get(endpoint).incrementAndGet();
+		lastHeaders.put(endpoint, exchange.getRequestHeaders());
+		try {
+			Map<String, Object> request = readRequest(exchange);
+			lastRequests.put(endpoint, request);
+			int status = ThreadLocalRandom.current().nextDouble() < errorRate ? errorStatus : isFailingStatement(endpoint, request) ? 500 : 200;
+			byte[] body = status == 200 ?
+					objectMapper.writeValueAsBytes(respond(endpoint, request)) :
+					objectMapper.writeValueAsBytes(result(status, "Injected failure", null));
+			timer.schedule(() -> send(exchange, status, body), delayOf(endpoint).toNanos(), TimeUnit.NANOSECONDS);
+		} catch (Exception e) {
+			send(exchange, 500, e.toString().getBytes());
+		}
+	}
+
+	private Map<String, Object> readRequest(HttpExchange exchange) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] body = in.readAllBytes();
+			return body.length == 0 ? Map.of() : objectMapper.readValue(body, Map.class);
+		}
+	}
+
+	private boolean isFailingStatement(String endpoint, Map<String, Object> request) {
+		return failingStatement > 0 && endpoint.equals("/getStatementDetails")
+				&& String.valueOf(request.get("analysisStmtId")).endsWith("-stmt-" + failingStatement);
+	}
+
+	private Duration delayOf(String endpoint) {
+		Duration delay = latencyByEndpoint.getOrDefault(endpoint, latency);
+		long jitterNanos = latencyJitter.toNanos();
+		return jitterNanos > 0 ? delay.plusNanos(ThreadLocalRandom.current().nextLong(jitterNanos)) : delay;
+	}
+
+	private static void send(HttpExchange exchange, int status, byte[] body) {
+		try (exchange) {
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (IOException e) {
+			// The client gave up on the request
+		}
+	}
+
+	private Map<String, Object> respond(String endpoint, Map<String, Object> request) {
+		return switch (endpoint) {
+			case "/getUserKey" -> result(200, "success", Map.of("apikey", "stub-api-key", "frontendUrl", getBaseUrl()));
+			case "/validateUserKey" -> result(200, "success", true);
+			case "/createWorkspace" -> result(200, "success", Map.of("workspaceId", "ws-" + ids.incrementAndGet()));
+			case "/createAnalysis" -> result(200, "success", Map.of("analysisId", "an-" + ids.incrementAndGet()));
+			case "/getAnalysisSummary" -> result(200, "success", summary(String.valueOf(request.get("analysisId"))));
+			case "/getStatementDetails" -> result(200, "success", details(String.valueOf(request.get("analysisStmtId"))));
+			case "/listWorkspaces" -> result(200, "success", workspaces(request));
+			default -> result(404, "Unknown endpoint", null);
+		};
+	}
+
+	private Map<String, Object> summary(String analysisId) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("analysisId", analysisId);
+		if (summaryPolls.computeIfAbsent(analysisId, id -> new AtomicInteger()).incrementAndGet() <= pendingPolls) {
+			summary.put("status", "running");
+			return summary;
+		}
+		summaryPolls.remove(analysisId);
+
+		List<Map<String, Object>> statements = new ArrayList<>(statementCount);
+		for (int i = 1; i <= statementCount; i++) {
+			Map<String, Object> statement = new LinkedHashMap<>();
+			statement.put("analysisStmtId", analysisId + "-stmt-" + i);
+			statement.put("stmtText", "select * from orders where o_custkey = " + i);
+			statement.put("costBefore", 1000.0 * i);
+			statement.put("costAfter", 10.0 * i);
+			statement.put("performanceImprovement", "99%");
+			statements.add(statement);
+		}
+		summary.put("status", "completed");
+		summary.put("summaryStatementInfo", statements);
+		return summary;
+	}
+
+	private Map<String, Object> details(String analysisStmtId) {
+		StringBuilder markdown = new StringBuilder(detailMarkdownSize + 64)
+				.append("## Statement ").append(analysisStmtId).append("\n\n```\n");
+		while (markdown.length() < detailMarkdownSize) {
+			markdown.append("-> Index Scan using idx_orders_custkey on orders  (cost=0.43..8.45 rows=1 width=107)\n");
+		}
+		markdown.setLength(Math.max(detailMarkdownSize, 0));
+		return Map.of("analysisStmtId", analysisStmtId, "detailMarkdown", markdown.toString());
+	}
+
+	private Map<String, Object> workspaces(Map<String, Object> request) {
+		int pageNumber = request.get("pageNumber") instanceof Number number ? number.intValue() : 1;
+		int pageSize = request.get("pageSize") instanceof Number number ? number.intValue() : 10;
+		List<Map<String, Object>> records = new ArrayList<>();
+		for (int i = (pageNumber - 1) * pageSize + 1; i <= Math.min(pageNumber * pageSize, workspaceCount); i++) {
+			Map<String, Object> workspace = new LinkedHashMap<>();
+			workspace.put("workspaceId", "ws-list-" + i);
+			workspace.put("workspaceName", "workspace " + i);
+			workspace.put("dbType", "mysql");
+			workspace.put("status", "ready");
+			records.add(workspace);
+		}
+		return Map.of("records", records, "total", workspaceCount);
+	}
+
+	private static Map<String, Object> result(int code, String message, Object data) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("code", code);
+		result.put("message", message);
+		result.put("data", data);
+		return result;
+	}
+}
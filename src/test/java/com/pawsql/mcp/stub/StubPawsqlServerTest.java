@@ -0,0 +1,68 @@
+package com.pawsql.mcp.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubPawsqlServerTest {
+	private final HttpClient client = HttpClient.newHttpClient();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void servesAnalysisAfterPendingPolls() throws Exception {
+		try (StubPawsqlServer stub = new StubPawsqlServer(0)) {
+			stub.setPendingPolls(1);
+			stub.setStatementCount(3);
+			stub.setDetailMarkdownSize(10_000);
+
+			String analysisId = (String) data(post(stub, "/createAnalysis", Map.of("workload", "select 1"))).get("analysisId");
+			assertEquals("running", data(post(stub, "/getAnalysisSummary", Map.of("analysisId", analysisId))).get("status"));
+
+			Map<String, Object> summary = data(post(stub, "/getAnalysisSummary", Map.of("analysisId", analysisId)));
+			List<Map<String, Object>> statements = (List<Map<String, Object>>) summary.get("summaryStatementInfo");
+			assertEquals(3, statements.size());
+
+			Map<String, Object> details = data(post(stub, "/getStatementDetails", Map.of("analysisStmtId", statements.get(0).get("analysisStmtId"))));
+			assertEquals(10_000, ((String) details.get("detailMarkdown")).length());
+			assertEquals(2L, stub.getRequestCount("/getAnalysisSummary"));
+		}
+	}
+
+	@Test
+	void injectsLatencyAndErrors() throws Exception {
+		try (StubPawsqlServer stub = new StubPawsqlServer(0)) {
+			stub.setLatency("/listWorkspaces", Duration.ofMillis(200));
+			long startNanos = System.nanoTime();
+			HttpResponse<byte[]> response = post(stub, "/listWorkspaces", Map.of("pageNumber", 1, "pageSize", 5));
+			assertTrue(System.nanoTime() - startNanos >= Duration.ofMillis(200).toNanos());
+			assertEquals(5, ((List<?>) data(response).get("records")).size());
+
+			stub.setErrorRate(1.0, 503);
+			assertEquals(503, post(stub, "/createWorkspace", Map.of("ddlText", "create table t (a int)")).statusCode());
+		}
+	}
+
+	private HttpResponse<byte[]> post(StubPawsqlServer stub, String endpoint, Map<String, ?> body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(stub.getBaseUrl() + StubPawsqlServer.API_PATH + endpoint))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private Map<String, Object> data(HttpResponse<byte[]> response) throws Exception {
+		assertEquals(200, response.statusCode());
+		return (Map<String, Object>) objectMapper.readValue(response.body(), Map.class).get("data");
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.pawsql.mcp.stub;
+
+import com.pawsql.mcp.PawSQLMCPApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The MCP server application wired to a {@link StubPawsqlServer}, for tests of the services against a real HTTP exchange
+ * <p>
+ * No MCP transport is started, so standard input and output stay free; callers drive the services or tool
+ * callbacks directly. Workspace reuse is disabled so that nothing is written to the user's home directory.
+ */
+public class StubbedApplication implements AutoCloseable {
+	private final StubPawsqlServer stub;
+	private final ConfigurableApplicationContext context;
+
+	/**
+	 * @param properties Extra {@code key=value} properties, e.g. to change resilience settings; they override
+	 *                   application.yml and the defaults above
+	 */
+	public StubbedApplication(String... properties) throws IOException {
+		this.stub = new StubPawsqlServer(0);
+		Map<String, String> settings = new LinkedHashMap<>();
+		Stream.concat(Stream.of(
+						"PAWSQL_EDITION=community",
+						"PAWSQL_API_BASE_URL=" + stub.getBaseUrl(),
+						"spring.ai.mcp.server.enabled=false",
+						"pawsql.metrics.log.enabled=false",
+						"pawsql.optimize.workspace-reuse.enabled=false"), Stream.of(properties))
+				.map(setting -> setting.split("=", 2))
+				.forEach(setting -> settings.put(setting[0], setting.length > 1 ? setting[1] : ""));
+		try {
+			// Passed as command-line arguments, which unlike default properties take precedence over application.yml;
+			// a repeated argument would be joined with the earlier value, so a later setting replaces it instead
+			this.context = new SpringApplicationBuilder(PawSQLMCPApplication.class)
+					.web(WebApplicationType.NONE)
+					.run(settings.entrySet().stream()
+							.map(setting -> "--" + setting.getKey() + "=" + setting.getValue())
+							.toArray(String[]::new));
+		} catch (RuntimeException e) {
+			stub.close();
+			throw e;
+		}
+	}
+
+	public StubPawsqlServer getStub() {
+		return stub;
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	public ConfigurableApplicationContext getContext() {
+		return context;
+	}
+
+	@Override
+	public void close() {
+		context.close();
+		stub.close();
+	}
+}
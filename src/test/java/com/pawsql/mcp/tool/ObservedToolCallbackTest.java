@@ -0,0 +1,68 @@
+package com.pawsql.mcp.tool;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ObservedToolCallbackTest {
+
+	private final TestObservationRegistry registry = TestObservationRegistry.create();
+
+	private static ToolCallback tool(Function<String, String> call) {
+		ToolDefinition definition = ToolDefinition.builder().name("optimize_sql").description("").inputSchema("{}").build();
+		return new ToolCallback() {
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return call.apply(toolInput);
+			}
+		};
+	}
+
+	@Test
+	void observesCallsWithTheToolName() {
+		ObservedToolCallback callback = new ObservedToolCallback(tool(input -> {
+			assertEquals("pawsql.tool", registry.getCurrentObservation().getContext().getName());
+			return "{\"code\":200}";
+		}), registry);
+
+		assertEquals("{\"code\":200}", callback.call("{}"));
+
+		TestObservationRegistryAssert.assertThat(registry)
+				.hasSingleObservationThat()
+				.hasNameEqualTo("pawsql.tool")
+				.hasContextualNameEqualTo("tool optimize_sql")
+				.hasLowCardinalityKeyValue("tool", "optimize_sql")
+				.hasLowCardinalityKeyValue("code", "200")
+				.hasBeenStarted()
+				.hasBeenStopped();
+	}
+
+	@Test
+	void propagatesErrors() {
+		IllegalStateException failure = new IllegalStateException("boom");
+		ObservedToolCallback callback = new ObservedToolCallback(tool(input -> {
+			throw failure;
+		}), registry);
+
+		assertSame(failure, assertThrows(IllegalStateException.class, () -> callback.call("{}")));
+
+		TestObservationRegistryAssert.assertThat(registry)
+				.hasSingleObservationThat()
+				.hasLowCardinalityKeyValue("tool", "optimize_sql")
+				.hasError(failure)
+				.hasBeenStopped();
+	}
+}
@@ -0,0 +1,64 @@
+package com.pawsql.mcp.tool;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimedToolCallbackTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private static ToolCallback tool(Function<String, String> call) {
+		ToolDefinition definition = ToolDefinition.builder().name("optimize_sql").description("").inputSchema("{}").build();
+		return new ToolCallback() {
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return call.apply(toolInput);
+			}
+		};
+	}
+
+	private Timer timer(String code) {
+		return registry.get("pawsql.tool.calls").tag("tool", "optimize_sql").tag("code", code).timer();
+	}
+
+	@Test
+	void recordsCallsWithToolNameAndResultCode() {
+		TimedToolCallback callback = new TimedToolCallback(tool(input -> "{\"code\":200,\"message\":\"ok\"}"), registry);
+
+		assertEquals("{\"code\":200,\"message\":\"ok\"}", callback.call("{}"));
+		callback.call("{}");
+
+		assertEquals(2, timer("200").count());
+	}
+
+	@Test
+	void recordsFailedCalls() {
+		TimedToolCallback callback = new TimedToolCallback(tool(input -> {
+			throw new IllegalStateException("boom");
+		}), registry);
+
+		assertThrows(IllegalStateException.class, () -> callback.call("{}"));
+
+		assertEquals(1, timer("exception").count());
+	}
+
+	@Test
+	void extractsResultCodes() {
+		assertEquals("404", TimedToolCallback.resultCode(" { \"code\" : 404, \"data\": null}"));
+		assertEquals("unknown", TimedToolCallback.resultCode("plain text"));
+		assertEquals("unknown", TimedToolCallback.resultCode(null));
+	}
+}